@@ -0,0 +1,736 @@
+package hospital.appointments;
+
+import hospital.core.Appointment;
+import hospital.core.AppointmentTime;
+import hospital.core.AvailabilityIndex;
+import hospital.core.Doctor;
+import hospital.core.HospitalService;
+import hospital.core.Metrics;
+import hospital.core.Patient;
+import hospital.ui.CommandExecutor;
+import hospital.ui.TextChangeListener;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.swing.*;
+import javax.swing.plaf.basic.BasicComboBoxEditor;
+
+// Main class to run the application
+public class DoctorAppointmentSystem {
+    public static void main(String[] args) {
+        HospitalService service = openService();
+        service.addSampleDataIfEmpty();
+        // Run the GUI on the Event Dispatch Thread for thread safety
+        SwingUtilities.invokeLater(() -> {
+            MainFrame mainFrame = new MainFrame(service);
+            mainFrame.setVisible(true);
+        });
+    }
+
+    private static HospitalService openService() {
+        Path dataDir = Paths.get(System.getProperty("hospital.dataDir", "hospital-data"));
+        try {
+            return HospitalService.open(dataDir);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not open " + dataDir + ": " + e.getMessage() + ". Changes will not be saved.");
+            return new HospitalService();
+        }
+    }
+}
+
+// ---------------------------------------------------
+// UI CLASSES (GUI Components)
+// ---------------------------------------------------
+
+// Editable combo box that lists only the top matches for what has been typed, so a store with
+// hundreds of thousands of entries never has to be loaded into a Swing model. Keystrokes are
+// debounced, the lookup runs on the command executor instead of the EDT, and results that
+// arrive after newer typing are dropped. Entries are shown, and typed, by their label.
+class TypeAheadComboBox<T> extends JComboBox<T> {
+    private static final int DEBOUNCE_MILLIS = 200;
+
+    private final CommandExecutor commands;
+    private final Function<String, List<T>> lookup;
+    private final Function<T, String> label;
+    private final JTextField editor;
+    private final Timer debounce;
+    private List<T> matches = Collections.emptyList();
+    private int generation;
+    private boolean updating;
+
+    public TypeAheadComboBox(CommandExecutor commands, Function<String, List<T>> lookup, Function<T, String> label) {
+        this.commands = commands;
+        this.lookup = lookup;
+        this.label = label;
+        setEditable(true);
+        setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list, labelOf(value), index, isSelected, cellHasFocus);
+            }
+        });
+        setEditor(new BasicComboBoxEditor() {
+            private Object shown;
+
+            @Override
+            public void setItem(Object item) {
+                shown = item;
+                super.setItem(labelOf(item));
+            }
+
+            // The entry whose label is still in the editor, or the typed text
+            @Override
+            public Object getItem() {
+                Object typed = super.getItem();
+                return shown != null && labelOf(shown).equals(typed) ? shown : typed;
+            }
+        });
+        editor = (JTextField) getEditor().getEditorComponent();
+        debounce = new Timer(DEBOUNCE_MILLIS, e -> refreshMatches());
+        debounce.setRepeats(false);
+        editor.getDocument().addDocumentListener((TextChangeListener) () -> {
+            // Picking an entry writes its name into the editor; that is not new typing
+            Object selected = dataModel.getSelectedItem();
+            if (!updating && (selected == null || !editor.getText().equals(labelOf(selected)))) {
+                debounce.restart();
+            }
+        });
+    }
+
+    // The entry picked from the list, or the only match whose label was typed in full.
+    public T getSelection() {
+        Object selected = dataModel.getSelectedItem();
+        String text = editor.getText().trim();
+        T named = null;
+        for (T match : matches) {
+            String matchLabel = label.apply(match);
+            if (match == selected && matchLabel.equals(text)) {
+                return match;
+            }
+            if (matchLabel.equals(text)) {
+                if (named != null) {
+                    return null;
+                }
+                named = match;
+            }
+        }
+        return named;
+    }
+
+    public String getText() {
+        return editor.getText().trim();
+    }
+
+    // Shows item as the only match and picks it, e.g. when it was chosen somewhere else.
+    public void select(T item) {
+        debounce.stop();
+        generation++;
+        updating = true;
+        try {
+            DefaultComboBoxModel<T> model = new DefaultComboBoxModel<>();
+            model.addElement(item);
+            model.setSelectedItem(item);
+            matches = Collections.singletonList(item);
+            setModel(model);
+            editor.setText(label.apply(item));
+        } finally {
+            updating = false;
+        }
+    }
+
+    // Looks up the current text again, e.g. after the store has changed.
+    public void refreshMatches() {
+        debounce.stop();
+        String query = editor.getText().trim();
+        int requested = ++generation;
+        commands.submit(() -> lookup.apply(query), results -> {
+            if (requested == generation) {
+                showMatches(results);
+            }
+        }, e -> {
+            // A failed lookup leaves the previous matches in place
+        });
+    }
+
+    // Typed text is shown as it is; entries by their label.
+    @SuppressWarnings("unchecked")
+    private String labelOf(Object item) {
+        if (item == null) {
+            return "";
+        }
+        return item instanceof String ? (String) item : label.apply((T) item);
+    }
+
+    private void showMatches(List<T> results) {
+        updating = true;
+        try {
+            String text = editor.getText();
+            int caret = editor.getCaretPosition();
+            DefaultComboBoxModel<T> model = new DefaultComboBoxModel<>();
+            // Selecting the typed text first stops the model from selecting the first match
+            model.setSelectedItem(text);
+            for (T result : results) {
+                model.addElement(result);
+            }
+            matches = results;
+            setModel(model);
+            editor.setText(text);
+            editor.setCaretPosition(Math.min(caret, text.length()));
+        } finally {
+            updating = false;
+        }
+        if (editor.isFocusOwner()) {
+            // Hiding first makes the popup resize to the new matches
+            hidePopup();
+            if (!results.isEmpty()) {
+                showPopup();
+            }
+        }
+    }
+}
+
+// Looks up the text of a search box once typing pauses, the same way TypeAheadComboBox does:
+// the lookup runs on the command executor instead of the EDT, and results that arrive after
+// newer typing are dropped.
+class DebouncedSearch<R> {
+    private static final int DEBOUNCE_MILLIS = 200;
+
+    private final JTextField field;
+    private final CommandExecutor commands;
+    private final Function<String, R> lookup;
+    private final Consumer<? super R> show;
+    private final Timer debounce;
+    private int generation;
+
+    public DebouncedSearch(JTextField field, CommandExecutor commands, Function<String, R> lookup, Consumer<? super R> show) {
+        this.field = field;
+        this.commands = commands;
+        this.lookup = lookup;
+        this.show = show;
+        debounce = new Timer(DEBOUNCE_MILLIS, e -> refresh());
+        debounce.setRepeats(false);
+        field.getDocument().addDocumentListener((TextChangeListener) debounce::restart);
+    }
+
+    // Looks up the current text right away, e.g. after the store has changed.
+    public void refresh() {
+        debounce.stop();
+        String query = field.getText().trim();
+        int requested = ++generation;
+        commands.submit(() -> lookup.apply(query), results -> {
+            if (requested == generation) {
+                show.accept(results);
+            }
+        }, e -> {
+            // A failed lookup leaves the previous results in place
+        });
+    }
+}
+
+class MainFrame extends JFrame {
+    public MainFrame(HospitalService service) {
+        setTitle("Doctor Appointment Management System");
+        setSize(800, 600);
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLocationRelativeTo(null);
+
+        JTabbedPane tabbedPane = new JTabbedPane();
+
+        CommandExecutor commands = new CommandExecutor(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        DoctorPanel doctorPanel = new DoctorPanel(service, commands);
+        PatientPanel patientPanel = new PatientPanel(service, commands);
+        AppointmentPanel appointmentPanel = new AppointmentPanel(service, commands);
+        StatsPanel statsPanel = new StatsPanel(service);
+
+        tabbedPane.addTab("Appointments", null, appointmentPanel, "Manage Appointments");
+        tabbedPane.addTab("Doctors", null, doctorPanel, "Manage Doctors");
+        tabbedPane.addTab("Patients", null, patientPanel, "Manage Patients");
+        tabbedPane.addTab("Stats", null, statsPanel, "Operation Latencies and Counts");
+        
+        tabbedPane.addChangeListener(e -> {
+            if (tabbedPane.getSelectedComponent() == appointmentPanel) {
+                appointmentPanel.refreshData();
+            }
+            statsPanel.setActive(tabbedPane.getSelectedComponent() == statsPanel);
+        });
+
+        add(tabbedPane, BorderLayout.CENTER);
+    }
+}
+
+// Shows the service metrics, refreshed every second while the tab is visible.
+class StatsPanel extends JPanel {
+    private final Metrics metrics;
+    private final JTextArea statsArea;
+    private final Timer refreshTimer;
+
+    public StatsPanel(HospitalService service) {
+        metrics = service.getMetrics();
+        setLayout(new BorderLayout(10, 10));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        statsArea = new JTextArea();
+        statsArea.setEditable(false);
+        statsArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JButton saveButton = new JButton("Save as JSON");
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(saveButton);
+
+        add(new JScrollPane(statsArea), BorderLayout.CENTER);
+        add(buttonPanel, BorderLayout.SOUTH);
+
+        refreshTimer = new Timer(1000, e -> refreshData());
+        saveButton.addActionListener(e -> saveJson());
+    }
+
+    public void setActive(boolean active) {
+        if (active) {
+            refreshData();
+            refreshTimer.start();
+        } else {
+            refreshTimer.stop();
+        }
+    }
+
+    private void refreshData() {
+        statsArea.setText(metrics.toText());
+    }
+
+    private void saveJson() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            Files.write(chooser.getSelectedFile().toPath(), (metrics.toJson() + "\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Could not save: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
+
+class DoctorPanel extends JPanel {
+    private static final int SEARCH_LIMIT = 200;
+
+    private final HospitalService service;
+    private final CommandExecutor commands;
+    private final StoreTableModel<Doctor> tableModel;
+    private final DebouncedSearch<List<Doctor>> search;
+    // null while the search box is empty and the table lists every doctor
+    private List<Doctor> searchResults;
+    private final JTextField nameField;
+    private final JTextField specializationField;
+
+    public DoctorPanel(HospitalService service, CommandExecutor commands) {
+        this.service = service;
+        this.commands = commands;
+        setLayout(new BorderLayout(10, 10));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        JPanel formPanel = new JPanel(new GridLayout(3, 2, 5, 5));
+        formPanel.setBorder(BorderFactory.createTitledBorder("Add New Doctor"));
+        
+        nameField = new JTextField();
+        specializationField = new JTextField();
+        JButton addButton = new JButton("Add Doctor");
+
+        formPanel.add(new JLabel("Name:"));
+        formPanel.add(nameField);
+        formPanel.add(new JLabel("Specialization:"));
+        formPanel.add(specializationField);
+        formPanel.add(new JLabel());
+        formPanel.add(addButton);
+
+        String[] columnNames = {"ID", "Name", "Specialization", "Appointments"};
+        tableModel = new StoreTableModel<>(columnNames, () -> searchResults != null ? searchResults : service.getAllDoctors(), (doc, column) -> {
+            switch (column) {
+                case 0: return doc.getId();
+                case 1: return doc.getName();
+                case 2: return doc.getSpecialization();
+                default: return service.getDoctorLoad(doc.getId());
+            }
+        });
+        JTable doctorTable = new JTable(tableModel);
+        JScrollPane scrollPane = new JScrollPane(doctorTable);
+        scrollPane.setBorder(BorderFactory.createTitledBorder("Existing Doctors"));
+
+        JTextField searchField = new JTextField();
+        JPanel searchPanel = new JPanel(new BorderLayout(5, 5));
+        searchPanel.add(new JLabel("Search:"), BorderLayout.WEST);
+        searchPanel.add(searchField, BorderLayout.CENTER);
+        JPanel northPanel = new JPanel(new BorderLayout(10, 10));
+        northPanel.add(formPanel, BorderLayout.CENTER);
+        northPanel.add(searchPanel, BorderLayout.SOUTH);
+
+        add(northPanel, BorderLayout.NORTH);
+        add(scrollPane, BorderLayout.CENTER);
+
+        search = new DebouncedSearch<>(searchField, commands,
+                query -> query.isEmpty() ? null : service.searchDoctors(query, SEARCH_LIMIT), results -> {
+                    searchResults = results;
+                    tableModel.reload();
+                });
+
+        addButton.addActionListener(e -> addDoctor());
+        refreshDoctorTable();
+    }
+
+    private void addDoctor() {
+        String name = nameField.getText();
+        String spec = specializationField.getText();
+
+        if (name.isEmpty() || spec.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "All fields are required.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        commands.submit(() -> service.addDoctor(name, spec), doctor -> {
+            nameField.setText("");
+            specializationField.setText("");
+            refreshDoctorTable();
+        }, e -> JOptionPane.showMessageDialog(this, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    public void refreshDoctorTable() {
+        if (searchResults != null) {
+            search.refresh();
+        } else {
+            tableModel.refresh();
+        }
+    }
+}
+
+class PatientPanel extends JPanel {
+    private static final int SEARCH_LIMIT = 200;
+
+    private final HospitalService service;
+    private final CommandExecutor commands;
+    private final StoreTableModel<Patient> tableModel;
+    private final DebouncedSearch<List<Patient>> search;
+    // null while the search box is empty and the table lists every patient
+    private List<Patient> searchResults;
+    private final JTextField nameField;
+    private final JTextField contactField;
+
+    public PatientPanel(HospitalService service, CommandExecutor commands) {
+        this.service = service;
+        this.commands = commands;
+        setLayout(new BorderLayout(10, 10));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        JPanel formPanel = new JPanel(new GridLayout(3, 2, 5, 5));
+        formPanel.setBorder(BorderFactory.createTitledBorder("Add New Patient"));
+
+        nameField = new JTextField();
+        contactField = new JTextField();
+        JButton addButton = new JButton("Add Patient");
+
+        formPanel.add(new JLabel("Name:"));
+        formPanel.add(nameField);
+        formPanel.add(new JLabel("Contact Info:"));
+        formPanel.add(contactField);
+        formPanel.add(new JLabel());
+        formPanel.add(addButton);
+
+        String[] columnNames = {"ID", "Name", "Contact Info"};
+        tableModel = new StoreTableModel<>(columnNames, () -> searchResults != null ? searchResults : service.getAllPatients(), (p, column) -> {
+            switch (column) {
+                case 0: return p.getId();
+                case 1: return p.getName();
+                default: return p.getContactInfo();
+            }
+        });
+        JTable patientTable = new JTable(tableModel);
+        JScrollPane scrollPane = new JScrollPane(patientTable);
+        scrollPane.setBorder(BorderFactory.createTitledBorder("Existing Patients"));
+
+        JTextField searchField = new JTextField();
+        JPanel searchPanel = new JPanel(new BorderLayout(5, 5));
+        searchPanel.add(new JLabel("Search:"), BorderLayout.WEST);
+        searchPanel.add(searchField, BorderLayout.CENTER);
+        JPanel northPanel = new JPanel(new BorderLayout(10, 10));
+        northPanel.add(formPanel, BorderLayout.CENTER);
+        northPanel.add(searchPanel, BorderLayout.SOUTH);
+
+        add(northPanel, BorderLayout.NORTH);
+        add(scrollPane, BorderLayout.CENTER);
+
+        search = new DebouncedSearch<>(searchField, commands,
+                query -> query.isEmpty() ? null : service.searchPatients(query, SEARCH_LIMIT), results -> {
+                    searchResults = results;
+                    tableModel.reload();
+                });
+
+        addButton.addActionListener(e -> addPatient());
+        refreshPatientTable();
+    }
+
+    private void addPatient() {
+        String name = nameField.getText();
+        String contact = contactField.getText();
+
+        if (name.isEmpty() || contact.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "All fields are required.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        commands.submit(() -> service.addPatient(name, contact), patient -> {
+            nameField.setText("");
+            contactField.setText("");
+            refreshPatientTable();
+        }, e -> JOptionPane.showMessageDialog(this, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    public void refreshPatientTable() {
+        if (searchResults != null) {
+            search.refresh();
+        } else {
+            tableModel.refresh();
+        }
+    }
+}
+
+class AppointmentPanel extends JPanel {
+    // How many doctors or patients a selector lists at a time
+    private static final int MATCH_LIMIT = 50;
+    private static final int FREE_SLOT_COUNT = 20;
+
+    private final HospitalService service;
+    private final CommandExecutor commands;
+    private final StoreTableModel<Appointment> tableModel;
+    private final TypeAheadComboBox<Doctor> doctorComboBox;
+    private final TypeAheadComboBox<Patient> patientComboBox;
+    private final JTextField dateTimeField;
+    private final JComboBox<String> specializationBox;
+    private final JTextField afterField;
+    private final DefaultListModel<AvailabilityIndex.Slot> freeSlots;
+    // The last free-slot search, repeated after a booking; null before the first one
+    private String slotSpecialization;
+    private LocalDateTime slotsAfter;
+
+    private long renderedVersion = -1;
+
+    public AppointmentPanel(HospitalService service, CommandExecutor commands) {
+        this.service = service;
+        this.commands = commands;
+        setLayout(new BorderLayout(10, 10));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        JPanel formPanel = new JPanel(new GridLayout(4, 2, 5, 5));
+        formPanel.setBorder(BorderFactory.createTitledBorder("Book New Appointment"));
+
+        doctorComboBox = new TypeAheadComboBox<>(commands, this::matchDoctors,
+                doctor -> doctor.getName() + " (" + doctor.getSpecialization() + ")");
+        patientComboBox = new TypeAheadComboBox<>(commands, this::matchPatients, Patient::getName);
+        dateTimeField = new JTextField();
+        JButton bookButton = new JButton("Book Appointment");
+        
+        formPanel.add(new JLabel("Doctor (name, ID or specialization):"));
+        formPanel.add(doctorComboBox);
+        formPanel.add(new JLabel("Patient (type a name or ID):"));
+        formPanel.add(patientComboBox);
+        formPanel.add(new JLabel("Date & Time (yyyy-MM-dd HH:mm):"));
+        formPanel.add(dateTimeField);
+        formPanel.add(new JLabel());
+        formPanel.add(bookButton);
+
+        JPanel slotFormPanel = new JPanel(new GridLayout(3, 2, 5, 5));
+        specializationBox = new JComboBox<>();
+        specializationBox.setEditable(true);
+        afterField = new JTextField();
+        JButton findButton = new JButton("Find Free Slots");
+        slotFormPanel.add(new JLabel("Specialization:"));
+        slotFormPanel.add(specializationBox);
+        slotFormPanel.add(new JLabel("After (blank for now):"));
+        slotFormPanel.add(afterField);
+        slotFormPanel.add(new JLabel());
+        slotFormPanel.add(findButton);
+
+        freeSlots = new DefaultListModel<>();
+        JList<AvailabilityIndex.Slot> freeSlotList = new JList<>(freeSlots);
+        freeSlotList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        freeSlotList.setVisibleRowCount(4);
+        JPanel slotPanel = new JPanel(new BorderLayout(5, 5));
+        slotPanel.setBorder(BorderFactory.createTitledBorder("Find a Free Slot"));
+        slotPanel.add(slotFormPanel, BorderLayout.NORTH);
+        slotPanel.add(new JScrollPane(freeSlotList), BorderLayout.CENTER);
+
+        JPanel northPanel = new JPanel(new GridLayout(1, 2, 10, 10));
+        northPanel.add(formPanel);
+        northPanel.add(slotPanel);
+
+        String[] columnNames = {"ID", "Doctor", "Patient", "Date & Time"};
+        tableModel = new StoreTableModel<>(columnNames, service::getAllAppointments, (app, column) -> {
+            switch (column) {
+                case 0: return app.getId();
+                case 1: return app.getDoctor().getName();
+                case 2: return app.getPatient().getName();
+                default: return AppointmentTime.formatDateTime(app.getTime());
+            }
+        });
+        JTable appointmentTable = new JTable(tableModel);
+        JScrollPane scrollPane = new JScrollPane(appointmentTable);
+        scrollPane.setBorder(BorderFactory.createTitledBorder("Scheduled Appointments"));
+
+        add(northPanel, BorderLayout.NORTH);
+        add(scrollPane, BorderLayout.CENTER);
+
+        bookButton.addActionListener(e -> bookAppointment());
+        findButton.addActionListener(e -> findFreeSlots());
+        // Picking a free slot fills in the booking form
+        freeSlotList.addListSelectionListener(e -> {
+            AvailabilityIndex.Slot slot = freeSlotList.getSelectedValue();
+            if (!e.getValueIsAdjusting() && slot != null) {
+                doctorComboBox.select(slot.getDoctor());
+                dateTimeField.setText(AppointmentTime.formatDateTime(slot.getStartMinute()));
+            }
+        });
+        refreshData();
+    }
+
+    private void bookAppointment() {
+        Doctor selectedDoctor = doctorComboBox.getSelection();
+        Patient selectedPatient = patientComboBox.getSelection();
+        String dateTimeStr = dateTimeField.getText();
+        // With no doctor picked, a specialization typed in full books its least loaded free doctor
+        String specialization = doctorComboBox.getText();
+        boolean anyDoctor = selectedDoctor == null && service.hasSpecialization(specialization);
+
+        if ((selectedDoctor == null && !anyDoctor) || selectedPatient == null || dateTimeStr.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "All fields are required.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        try {
+            LocalDateTime dateTime = LocalDateTime.parse(dateTimeStr.trim(), AppointmentTime.DATE_TIME);
+            Callable<Appointment> booking = anyDoctor
+                    ? () -> service.scheduleWithLeastLoadedDoctor(selectedPatient.getId(), specialization, dateTime)
+                    : () -> service.scheduleAppointment(selectedPatient.getId(), selectedDoctor.getId(), dateTime);
+            // Keyed by doctor (or specialization) so bookings for it are applied in the order they were made
+            commands.submit(anyDoctor ? specialization.hashCode() : selectedDoctor.getId(), booking, newAppointment -> {
+                dateTimeField.setText("");
+                refreshAppointmentTable();
+                if (slotSpecialization != null) {
+                    searchFreeSlots(slotSpecialization, slotsAfter);
+                }
+                if (anyDoctor) {
+                    JOptionPane.showMessageDialog(this, "Booked with " + newAppointment.getDoctor().getName() + ".");
+                }
+            }, e -> JOptionPane.showMessageDialog(this, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Invalid date/time format. Please use 'yyyy-MM-dd HH:mm'.", "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void findFreeSlots() {
+        Object selected = specializationBox.getEditor().getItem();
+        String specialization = selected == null ? "" : selected.toString().trim();
+        String afterStr = afterField.getText().trim();
+
+        if (specialization.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Specialization is required.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        try {
+            searchFreeSlots(specialization, afterStr.isEmpty() ? null : LocalDateTime.parse(afterStr, AppointmentTime.DATE_TIME));
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Invalid date/time format. Please use 'yyyy-MM-dd HH:mm'.", "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // A null after searches from the current time.
+    private void searchFreeSlots(String specialization, LocalDateTime after) {
+        slotSpecialization = specialization;
+        slotsAfter = after;
+        commands.submit(() -> service.findFreeSlots(specialization, after, FREE_SLOT_COUNT),
+                slots -> {
+                    freeSlots.clear();
+                    freeSlots.addAll(slots);
+                }, e -> JOptionPane.showMessageDialog(this, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+    
+    public void refreshData() {
+        long version = service.getVersion();
+        if (version == renderedVersion) {
+            return;
+        }
+        renderedVersion = version;
+        refreshSpecializations();
+        // Only re-run lookups that have nothing picked yet, so a pending choice is not lost
+        if (doctorComboBox.getSelection() == null) {
+            doctorComboBox.refreshMatches();
+        }
+        if (patientComboBox.getSelection() == null) {
+            patientComboBox.refreshMatches();
+        }
+        refreshAppointmentTable();
+    }
+
+    // An ID finds that doctor first; otherwise names and specializations are searched, and an
+    // empty query lists the first doctors.
+    private List<Doctor> matchDoctors(String query) {
+        if (query.isEmpty()) {
+            List<Doctor> doctors = service.getAllDoctors();
+            return new ArrayList<>(doctors.subList(0, Math.min(MATCH_LIMIT, doctors.size())));
+        }
+        List<Doctor> matches = new ArrayList<>(MATCH_LIMIT + 1);
+        Doctor byId = query.chars().allMatch(Character::isDigit) && query.length() < 10
+                ? service.findDoctorById(Integer.parseInt(query)) : null;
+        if (byId != null) {
+            matches.add(byId);
+        }
+        for (Doctor doctor : service.searchDoctors(query, MATCH_LIMIT)) {
+            if (doctor != byId) {
+                matches.add(doctor);
+            }
+        }
+        return matches;
+    }
+
+    private List<Patient> matchPatients(String query) {
+        if (query.isEmpty()) {
+            List<Patient> patients = service.getAllPatients();
+            return new ArrayList<>(patients.subList(0, Math.min(MATCH_LIMIT, patients.size())));
+        }
+        List<Patient> matches = new ArrayList<>(MATCH_LIMIT + 1);
+        Patient byId = query.chars().allMatch(Character::isDigit) && query.length() < 10
+                ? service.findPatientById(Integer.parseInt(query)) : null;
+        if (byId != null) {
+            matches.add(byId);
+        }
+        for (Patient patient : service.searchPatients(query, MATCH_LIMIT)) {
+            if (patient != byId) {
+                matches.add(patient);
+            }
+        }
+        return matches;
+    }
+
+    private void refreshAppointmentTable() {
+        tableModel.refresh();
+    }
+
+    private void refreshSpecializations() {
+        List<String> specializations = service.getSpecializations();
+        if (specializations.size() == specializationBox.getItemCount()) {
+            return;
+        }
+        Object typed = specializationBox.getEditor().getItem();
+        specializationBox.setModel(new DefaultComboBoxModel<>(specializations.toArray(new String[0])));
+        specializationBox.setSelectedItem(typed);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package hospital.appointments;
+
+import java.util.List;
+import java.util.function.Supplier;
+import javax.swing.table.AbstractTableModel;
+
+// Table model that reads rows straight from a HospitalService snapshot instead of copying them.
+// JTable only asks for the visible cells, so refreshing costs O(1) plus one event for the
+// rows appended since the last refresh.
+public class StoreTableModel<T> extends AbstractTableModel {
+    public interface RowReader<T> {
+        Object valueAt(T row, int column);
+    }
+
+    private final String[] columnNames;
+    private final Supplier<List<T>> source;
+    private final RowReader<T> reader;
+    private List<T> rows;
+
+    public StoreTableModel(String[] columnNames, Supplier<List<T>> source, RowReader<T> reader) {
+        this.columnNames = columnNames;
+        this.source = source;
+        this.reader = reader;
+        this.rows = source.get();
+    }
+
+    public void refresh() {
+        List<T> latest = source.get();
+        int oldSize = rows.size();
+        int newSize = latest.size();
+        rows = latest;
+        if (newSize > oldSize) {
+            fireTableRowsInserted(oldSize, newSize - 1);
+        } else if (newSize < oldSize) {
+            fireTableDataChanged();
+        }
+    }
+
+    // Re-reads the source and repaints every row, for when it changes other than by appending.
+    public void reload() {
+        rows = source.get();
+        fireTableDataChanged();
+    }
+
+    public T getRow(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return reader.valueAt(rows.get(rowIndex), columnIndex);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package hospital.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Load client for the HTTP API of the console program. After mvn -B package in the project
+// root, start the server first:
+//
+//   java -cp hospital-core/target/hospital-core.jar:hospital-console/target/hospital-console.jar \
+//        hospital.console.HospitalManagementSystem --server 8080
+//
+// then run the client against it:
+//
+//   java -Dbench.threads=64 -cp hospital-bench/target/hospital-bench.jar hospital.bench.ApiLoadClient [base url] [patients]
+//
+// The client adds the given number of patients (default 10000) and one doctor through the API,
+// then measures lookups by ID, list pages and bookings. The base URL defaults to
+// http://localhost:8080. Any unexpected status fails the run.
+public class ApiLoadClient {
+    private static final int LOOKUP_OPS = 200_000;
+    private static final int LIST_OPS = 20_000;
+    private static final int WRITE_OPS = 10_000;
+    private static final DateTimeFormatter MINUTE = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm");
+    // Bookings take one appointment length each from here on, far past any real appointment
+    private static final int SLOT_MINUTES = 30;
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2200, 1, 1, 0, 0);
+
+    private static final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080";
+        int patients = args.length > 1 ? Integer.parseInt(args[1].replace("_", "")) : 10_000;
+
+        int doctorId = idOf(send(base + "/doctors", "{\"name\":\"Load Doctor\",\"specialization\":\"General\"}", 201));
+        int firstPatient = 0;
+        int lastPatient = 0;
+        for (int i = 0; i < patients; i++) {
+            lastPatient = idOf(send(base + "/patients",
+                    "{\"name\":\"Load Patient " + i + "\",\"age\":" + (i % 90) + ",\"diagnosis\":\"Checkup\"}", 201));
+            if (i == 0) {
+                firstPatient = lastPatient;
+            }
+        }
+        int first = firstPatient;
+        int range = lastPatient - firstPatient + 1;
+
+        Bench.printHeader();
+        for (int threads : Bench.threadCounts()) {
+            Bench.run("GET /patients/<id>", patients, threads, LOOKUP_OPS,
+                    i -> get(base + "/patients/" + (first + Bench.spread(i, range))));
+            Bench.run("GET /patients?limit=100", patients, threads, LIST_OPS,
+                    i -> get(base + "/patients?limit=100&offset=" + Bench.spread(i, range)));
+            Bench.run("POST /appointments", patients, threads, WRITE_OPS,
+                    i -> send(base + "/appointments", "{\"patientId\":" + (first + Bench.spread(i, range))
+                            + ",\"doctorId\":" + doctorId + ",\"date\":\"" + MINUTE.format(FIRST_SLOT.plusMinutes(i * SLOT_MINUTES)) + "\"}", 201));
+        }
+    }
+
+    private static String get(String url) throws Exception {
+        return check(client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofString()), 200);
+    }
+
+    private static String send(String url, String json, int expectedStatus) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return check(client.send(request, HttpResponse.BodyHandlers.ofString()), expectedStatus);
+    }
+
+    private static String check(HttpResponse<String> response, int expectedStatus) {
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(response.request().method() + " " + response.request().uri()
+                    + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    // Entities come back as {"id":<n>,...}.
+    private static int idOf(String json) {
+        int start = json.indexOf("\"id\":") + 5;
+        int end = start;
+        while (end < json.length() && Character.isDigit(json.charAt(end))) {
+            end++;
+        }
+        return Integer.parseInt(json.substring(start, end));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package hospital.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Helpers shared by the benchmarks in this package. The JMH benchmarks only use spread and
+// deleteRecursively; the rest is a small load harness for ApiLoadClient, which measures a
+// server in another process and so cannot run under JMH. The harness runs a few warm-up
+// iterations, then a few measured ones, and reports the best and mean throughput. Every
+// operation gets a unique index so callers can derive distinct ids, slots and lookup keys
+// from it without sharing a random generator.
+//
+// Tune with -Dbench.warmup=<iterations>, -Dbench.iterations=<iterations>.
+final class Bench {
+    interface Op {
+        Object run(long index) throws Exception;
+    }
+
+    private static final int WARMUP_ITERATIONS = Integer.getInteger("bench.warmup", 3);
+    private static final int MEASURED_ITERATIONS = Integer.getInteger("bench.iterations", 5);
+
+    private static final AtomicLong nextIndex = new AtomicLong();
+    private static volatile int sink;
+
+    private Bench() {
+    }
+
+    public static int[] threadCounts() {
+        int threads = Integer.getInteger("bench.threads", Math.max(2, Runtime.getRuntime().availableProcessors()));
+        return threads == 1 ? new int[] {1} : new int[] {1, threads};
+    }
+
+    public static void printHeader() {
+        System.out.printf("%-32s %10s %8s %14s %14s %12s%n", "Benchmark", "Scale", "Threads", "Best ops/s", "Mean ops/s", "ns/op");
+    }
+
+    // Runs op opsPerIteration times per iteration, split evenly over the given number of threads.
+    public static void run(String name, long scale, int threads, int opsPerIteration, Op op) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                iteration(pool, threads, opsPerIteration, op);
+            }
+            double best = 0;
+            double total = 0;
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                double opsPerSecond = iteration(pool, threads, opsPerIteration, op);
+                best = Math.max(best, opsPerSecond);
+                total += opsPerSecond;
+            }
+            double mean = total / MEASURED_ITERATIONS;
+            System.out.printf("%-32s %10d %8d %14.0f %14.0f %12.1f%n",
+                    name, scale, threads, best, mean, 1e9 * threads / mean);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Returns the throughput of one iteration in operations per second.
+    private static double iteration(ExecutorService pool, int threads, int ops, Op op) throws Exception {
+        int perThread = Math.max(1, ops / threads);
+        List<Callable<Integer>> tasks = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            long first = nextIndex.getAndAdd(perThread);
+            tasks.add(() -> {
+                int hash = 0;
+                for (int i = 0; i < perThread; i++) {
+                    Object result = op.run(first + i);
+                    hash += result == null ? 0 : System.identityHashCode(result);
+                }
+                return hash;
+            });
+        }
+        long start = System.nanoTime();
+        List<Future<Integer>> results = pool.invokeAll(tasks);
+        long elapsed = System.nanoTime() - start;
+        int hash = 0;
+        for (Future<Integer> result : results) {
+            hash += result.get();
+        }
+        sink += hash;
+        return (double) perThread * threads * 1e9 / elapsed;
+    }
+
+    // Spreads consecutive indexes over [0, bound) so lookups do not walk memory in order.
+    public static int spread(long index, int bound) {
+        long z = index + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (int) Math.floorMod(z, (long) bound);
+    }
+
+    // Deletes a benchmark's data directory and everything in it.
+    public static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+package hospital.bench;
+
+import hospital.appointments.StoreTableModel;
+import hospital.core.Appointment;
+import hospital.core.AppointmentTime;
+import hospital.core.AvailabilityIndex;
+import hospital.core.Doctor;
+import hospital.core.HospitalService;
+import hospital.core.Patient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.table.DefaultTableModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Throughput of the service paths the tabbed appointment program leans on and of refreshing
+// its appointment table, at several store sizes. The program always persists, so the
+// benchmark does too: every trial opens a service in a fresh temporary directory, and closes
+// it and deletes the directory afterwards. Thread counts come from the runner (-t); the table
+// benchmarks touch one shared model and are meant for a single thread.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class DoctorAppointmentBenchmark {
+    private static final String[] COLUMNS = {"ID", "Doctor", "Patient", "Date & Time"};
+    private static final long FIRST_SLOT = AppointmentTime.of(LocalDateTime.of(2100, 1, 1, 0, 0));
+
+    // Every booking gets a slot of its own; benchmark bookings start past the slots used to
+    // fill the store.
+    private static final long BENCHMARK_FIRST_SLOT = 10_000_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int scale;
+
+    private HospitalService service;
+    private Path dataDir;
+    private List<Doctor> doctors;
+    private List<Patient> patients;
+    private StoreTableModel<Appointment> storeModel;
+    private final AtomicLong nextBooking = new AtomicLong();
+
+    // Each benchmark thread walks its own sequence of indexes
+    @State(Scope.Thread)
+    public static class Cursor {
+        long next;
+
+        long next() {
+            return next++;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        dataDir = Files.createTempDirectory("doctor-appointments-bench-");
+        service = HospitalService.open(dataDir);
+        int doctorCount = Math.max(10, scale / 100);
+        for (int i = 0; i < doctorCount; i++) {
+            service.addDoctor("Doctor " + i, "General");
+        }
+        for (int i = 0; i < scale; i++) {
+            service.addPatient("Patient " + i, "555-0100");
+        }
+        doctors = service.getAllDoctors();
+        patients = service.getAllPatients();
+        for (int i = 0; i < scale; i++) {
+            service.scheduleAppointment(patients.get(Bench.spread(i, patients.size())).getId(),
+                    doctors.get(i % doctors.size()).getId(), slot(i));
+        }
+        storeModel = new StoreTableModel<>(COLUMNS, service::getAllAppointments,
+                (app, column) -> AppointmentTime.formatDateTime(app.getTime()));
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        try {
+            service.close();
+        } finally {
+            Bench.deleteRecursively(dataDir);
+        }
+    }
+
+    @Benchmark
+    public Patient findPatientById(Cursor cursor) {
+        return service.findPatientById(patients.get(Bench.spread(cursor.next(), patients.size())).getId());
+    }
+
+    @Benchmark
+    public Doctor findDoctorById(Cursor cursor) {
+        return service.findDoctorById(doctors.get(Bench.spread(cursor.next(), doctors.size())).getId());
+    }
+
+    @Benchmark
+    public List<Appointment> getAllAppointments() {
+        return service.getAllAppointments();
+    }
+
+    @Benchmark
+    public List<Appointment> getAppointmentsForDoctor(Cursor cursor) {
+        return service.getAppointmentsForDoctor(doctors.get(Bench.spread(cursor.next(), doctors.size())).getId());
+    }
+
+    @Benchmark
+    public List<AvailabilityIndex.Slot> findFreeSlots(Cursor cursor) {
+        return service.findFreeSlots("General", slot(Bench.spread(cursor.next(), scale)), 10);
+    }
+
+    // The way the appointment table was filled before it read the store directly.
+    @Benchmark
+    public DefaultTableModel defaultTableModelFill() {
+        DefaultTableModel model = new DefaultTableModel(COLUMNS, 0);
+        for (Appointment app : service.getAllAppointments()) {
+            model.addRow(new Object[] {app.getId(), app.getDoctor().getName(), app.getPatient().getName(),
+                    AppointmentTime.formatDateTime(app.getTime())});
+        }
+        return model;
+    }
+
+    @Benchmark
+    public Object storeTableModelRefresh(Cursor cursor) {
+        storeModel.refresh();
+        return storeModel.getValueAt(Bench.spread(cursor.next(), storeModel.getRowCount()), 3);
+    }
+
+    @Benchmark
+    public Patient addPatient(Cursor cursor) {
+        return service.addPatient("Patient " + cursor.next(), "555-0100");
+    }
+
+    @Benchmark
+    public Appointment scheduleAppointment() {
+        long i = nextBooking.getAndIncrement();
+        return service.scheduleAppointment(patients.get(Bench.spread(i, patients.size())).getId(),
+                doctors.get((int) (i % doctors.size())).getId(), slot(BENCHMARK_FIRST_SLOT + i));
+    }
+
+    private static LocalDateTime slot(long index) {
+        return AppointmentTime.toLocalDateTime(FIRST_SLOT + index * HospitalService.APPOINTMENT_LENGTH.toMinutes());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package hospital.bench;
+
+import hospital.core.Appointment;
+import hospital.core.Doctor;
+import hospital.core.HospitalService;
+import hospital.core.Patient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Throughput of the HospitalService operations at several store sizes. Each benchmark runs
+// in a fresh fork against a store of scale patients and appointments, so the write
+// benchmarks never inflate the store a read benchmark measures. Thread counts come from the
+// runner (-t); -p persistent=true writes through the write-ahead log in a temporary directory.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HospitalServiceBenchmark {
+    // Benchmark bookings use days far past the ones used to fill the store, so they never collide.
+    private static final long BENCHMARK_FIRST_DAY = 1_000_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int scale;
+
+    @Param({"false"})
+    public boolean persistent;
+
+    private HospitalService service;
+    private Path dataDir;
+    private int patients;
+    private int doctors;
+    private final AtomicLong nextBooking = new AtomicLong();
+
+    // Each benchmark thread walks its own sequence of indexes
+    @State(Scope.Thread)
+    public static class Cursor {
+        long next;
+
+        long next() {
+            return next++;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        if (persistent) {
+            dataDir = Files.createTempDirectory("hospital-bench-");
+            service = HospitalService.open(dataDir);
+        } else {
+            service = new HospitalService();
+        }
+        populate();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        try {
+            service.close();
+        } finally {
+            if (dataDir != null) {
+                Bench.deleteRecursively(dataDir);
+            }
+        }
+    }
+
+    // Adds scale patients, one doctor per hundred patients and scale appointments spread over them.
+    private void populate() {
+        doctors = Math.max(10, scale / 100);
+        for (int i = 0; i < doctors; i++) {
+            service.addDoctor("Doctor " + i, "General");
+        }
+        for (int i = 0; i < scale; i++) {
+            service.addPatient("Patient " + i, i % 90, "Checkup");
+        }
+        patients = service.getPatientCount();
+        for (int i = 0; i < scale; i++) {
+            service.scheduleAppointment(1 + Bench.spread(i, patients), 1 + i % doctors, startOfDay(i / doctors));
+        }
+    }
+
+    @Benchmark
+    public Patient findPatientById(Cursor cursor) {
+        return service.findPatientById(1 + Bench.spread(cursor.next(), patients));
+    }
+
+    @Benchmark
+    public Doctor findDoctorById(Cursor cursor) {
+        return service.findDoctorById(1 + Bench.spread(cursor.next(), doctors));
+    }
+
+    @Benchmark
+    public List<Appointment> getAllAppointments() {
+        return service.getAllAppointments();
+    }
+
+    @Benchmark
+    public Patient addPatient(Cursor cursor) {
+        return service.addPatient("Patient " + cursor.next(), 40, "Checkup");
+    }
+
+    @Benchmark
+    public Appointment scheduleAppointment() {
+        long i = nextBooking.getAndIncrement();
+        return service.scheduleAppointment(1 + Bench.spread(i, patients), 1 + (int) (i % doctors),
+                startOfDay(BENCHMARK_FIRST_DAY + i / doctors));
+    }
+
+    private static LocalDateTime startOfDay(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).atStartOfDay();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,1154 @@
+package hospital.console;
+
+import hospital.core.Appointment;
+import hospital.core.AppointmentTime;
+import hospital.core.ChangeEvent;
+import hospital.core.ChangeFeed;
+import hospital.core.CsvImporter;
+import hospital.core.Doctor;
+import hospital.core.DoctorDirectory;
+import hospital.core.Exporter;
+import hospital.core.HospitalService;
+import hospital.core.Patient;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// Local HTTP/JSON API over a HospitalService, on the JDK's built-in HttpServer:
+//
+//   POST /patients        {"name":..., "age":..., "diagnosis":..., "contactInfo":...}  201 and the patient; only name is required
+//   GET  /patients/<id>                                                  the patient, or 404
+//   GET  /patients?offset=<n>&limit=<n>                                  {"items":[...],"next":<offset>}
+//   POST /doctors         {"name":..., "specialization":...}             201 and the doctor
+//   GET  /doctors/<id>, GET /doctors?offset=<n>&limit=<n>                as for patients
+//   GET  /doctors?specialization=<s>&limit=<n>                           its doctors with "load", least loaded first
+//   POST /appointments    {"patientId":..., "doctorId":..., "date":...}  201 and the appointment
+//   POST /appointments    {"patientId":..., "specialization":..., "date":...}  booked with the least loaded free doctor
+//   GET  /appointments?doctorId=&from=&to=&after=<token>&limit=<n>       {"items":[...],"next":<token>}
+//   GET  /changes?after=<sequence>&limit=<n>                             changes since sequence, see below
+//
+// Lists are written to the response page by page as they are read from the service, never
+// collected first. "next" goes into offset or after to fetch the following page; it is null
+// once a page comes back short. Changes are polled instead: each item is {"sequence":...,
+// "type":..., and the added "patient", "doctor" or "appointment"}, and "next" is always the
+// after for the following poll. A client that waited too long gets 410 and has to reload.
+// Errors are {"error":"..."} with status 400, 404, 405, 409 or 410.
+class ApiServer {
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 10_000;
+    private static final int PAGE_SIZE = 1024;
+    private static final int MAX_BODY_BYTES = 1 << 16;
+    private static final int BACKLOG = 1024;
+    private static final int QUEUE_CAPACITY = 4096;
+
+    interface Route {
+        void serve(HttpExchange exchange, String id) throws IOException;
+    }
+
+    interface PageReader<T> {
+        int read(int from, T[] page);
+    }
+
+    private static final class HttpError extends RuntimeException {
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private final HospitalService service;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public ApiServer(HospitalService service, int port) throws IOException {
+        // Responses go out as separate header and body writes; without TCP_NODELAY every small
+        // response on a kept-alive connection waits out the client's delayed ACK (about 40 ms).
+        // The JDK server reads this once, when the first server is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.service = service;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/patients", exchange -> handle(exchange, this::patients));
+        server.createContext("/doctors", exchange -> handle(exchange, this::doctors));
+        server.createContext("/appointments", exchange -> handle(exchange, this::appointments));
+        server.createContext("/changes", exchange -> handle(exchange, this::changes));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    // A fixed pool of platform threads: the module targets Java 17, which has no virtual
+    // threads. Once the queue is full the accepting thread runs requests itself, so a burst
+    // slows clients down instead of failing them.
+    private static ExecutorService newRequestExecutor() {
+        int threads = requestThreads();
+        AtomicInteger next = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread thread = new Thread(r, "api-" + next.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    static int requestThreads() {
+        return Math.max(8, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    private void handle(HttpExchange exchange, Route route) {
+        try (exchange) {
+            String context = exchange.getHttpContext().getPath();
+            String rest = exchange.getRequestURI().getPath().substring(context.length());
+            if (rest.startsWith("/")) {
+                rest = rest.substring(1);
+            }
+            try {
+                route.serve(exchange, rest.isEmpty() ? null : rest);
+            } catch (HttpError e) {
+                sendError(exchange, e.status, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+            }
+        } catch (IOException e) {
+            // The client went away; there is no one left to tell
+        }
+    }
+
+    private void patients(HttpExchange exchange, String id) throws IOException {
+        if (id != null) {
+            requireMethod(exchange, "GET");
+            Patient patient = service.findPatientById(parseId(id));
+            if (patient == null) {
+                throw new HttpError(404, "Patient with ID " + id + " not found.");
+            }
+            send(exchange, 200, Exporter.toJson(patient));
+        } else if (exchange.getRequestMethod().equals("POST")) {
+            Map<String, String> body = readBody(exchange);
+            String age = body.get("age");
+            Patient patient = service.addPatient(required(body, "name"),
+                    age == null ? Patient.NO_AGE : parseNumber(age, "age"),
+                    body.getOrDefault("diagnosis", ""), body.getOrDefault("contactInfo", ""));
+            send(exchange, 201, Exporter.toJson(patient));
+        } else {
+            requireMethod(exchange, "GET");
+            streamPage(exchange, new Patient[PAGE_SIZE], service::readPatients, Exporter::toJson);
+        }
+    }
+
+    private void doctors(HttpExchange exchange, String id) throws IOException {
+        if (id != null) {
+            requireMethod(exchange, "GET");
+            Doctor doctor = service.findDoctorById(parseId(id));
+            if (doctor == null) {
+                throw new HttpError(404, "Doctor with ID " + id + " not found.");
+            }
+            send(exchange, 200, Exporter.toJson(doctor));
+        } else if (exchange.getRequestMethod().equals("POST")) {
+            Map<String, String> body = readBody(exchange);
+            Doctor doctor = service.addDoctor(required(body, "name"), required(body, "specialization"));
+            send(exchange, 201, Exporter.toJson(doctor));
+        } else {
+            requireMethod(exchange, "GET");
+            Map<String, String> query = queryOf(exchange);
+            String specialization = query.get("specialization");
+            if (specialization == null) {
+                streamPage(exchange, new Doctor[PAGE_SIZE], service::readDoctors, Exporter::toJson);
+                return;
+            }
+            // The directory is short and ordered by load, which changes between requests, so it is not paged
+            try (Writer out = openList(exchange)) {
+                List<DoctorDirectory.Listing> listings = service.getDoctorDirectory(specialization, limitOf(query));
+                for (int i = 0; i < listings.size(); i++) {
+                    String doctor = Exporter.toJson(listings.get(i).getDoctor());
+                    out.write(i == 0 ? "" : ",");
+                    out.write(doctor.substring(0, doctor.length() - 1) + ",\"load\":" + listings.get(i).getLoad() + "}");
+                }
+                out.write("],\"next\":null}");
+            }
+        }
+    }
+
+    private void appointments(HttpExchange exchange, String id) throws IOException {
+        if (id != null) {
+            throw new HttpError(404, "No such resource.");
+        }
+        if (exchange.getRequestMethod().equals("POST")) {
+            Map<String, String> body = readBody(exchange);
+            int patientId = number(body, "patientId");
+            // Without a doctorId, the least loaded doctor of the specialization who is free gets the booking
+            String specialization = body.containsKey("doctorId") ? null : required(body, "specialization");
+            int doctorId = specialization == null ? number(body, "doctorId") : 0;
+            // The service refuses every bad booking the same way, so the cases that are not
+            // conflicts are told apart up front
+            LocalDateTime date = AppointmentTime.parseDateTime(required(body, "date"));
+            if (service.findPatientById(patientId) == null) {
+                throw new HttpError(404, "Patient with ID " + patientId + " not found.");
+            }
+            if (specialization != null && !service.hasSpecialization(specialization)) {
+                throw new HttpError(404, "No doctor specializes in " + specialization + ".");
+            }
+            if (specialization == null && service.findDoctorById(doctorId) == null) {
+                throw new HttpError(404, "Doctor with ID " + doctorId + " not found.");
+            }
+            Appointment appointment;
+            try {
+                appointment = specialization == null
+                        ? service.scheduleAppointment(patientId, doctorId, date)
+                        : service.scheduleWithLeastLoadedDoctor(patientId, specialization, date);
+            } catch (IllegalArgumentException e) {
+                throw new HttpError(409, e.getMessage());
+            }
+            send(exchange, 201, Exporter.toJson(appointment));
+            return;
+        }
+        requireMethod(exchange, "GET");
+        Map<String, String> query = queryOf(exchange);
+        String doctor = query.get("doctorId");
+        int doctorId = doctor == null ? 0 : parseId(doctor);
+        String after = query.get("after");
+        HospitalService.AppointmentCursor cursor = after == null
+                ? service.appointmentCursor(doctorId, query.get("from"), query.get("to"))
+                : service.appointmentCursor(doctorId, query.get("from"), query.get("to"), after);
+        int limit = limitOf(query);
+        Appointment[] page = new Appointment[Math.min(PAGE_SIZE, limit)];
+        try (Writer out = openList(exchange)) {
+            int written = 0;
+            while (written < limit) {
+                if (limit - written < page.length) {
+                    page = new Appointment[limit - written];
+                }
+                int count = cursor.next(page);
+                for (int i = 0; i < count; i++) {
+                    out.write(written + i == 0 ? "" : ",");
+                    out.write(Exporter.toJson(page[i]));
+                }
+                written += count;
+                if (count < page.length) {
+                    break;
+                }
+            }
+            out.write("],\"next\":" + (written == limit ? Exporter.json(cursor.token()) : "null") + "}");
+        }
+    }
+
+    private void changes(HttpExchange exchange, String id) throws IOException {
+        if (id != null) {
+            throw new HttpError(404, "No such resource.");
+        }
+        requireMethod(exchange, "GET");
+        Map<String, String> query = queryOf(exchange);
+        String after = query.get("after");
+        long sequence;
+        try {
+            sequence = after == null ? 0 : Long.parseLong(after);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid after '" + after + "'.");
+        }
+        List<ChangeEvent> events;
+        try {
+            events = service.getChanges().read(sequence, limitOf(query));
+        } catch (ChangeFeed.OverflowException e) {
+            throw new HttpError(410, e.getMessage());
+        }
+        try (Writer out = openList(exchange)) {
+            for (int i = 0; i < events.size(); i++) {
+                ChangeEvent event = events.get(i);
+                out.write(i == 0 ? "{" : ",{");
+                out.write("\"sequence\":" + event.getSequence() + ",\"type\":\"" + event.getType() + "\",");
+                if (event.getPatient() != null) {
+                    out.write("\"patient\":" + Exporter.toJson(event.getPatient()));
+                } else if (event.getDoctor() != null) {
+                    out.write("\"doctor\":" + Exporter.toJson(event.getDoctor()));
+                } else {
+                    out.write("\"appointment\":" + Exporter.toJson(event.getAppointment()));
+                }
+                out.write("}");
+            }
+            long next = events.isEmpty() ? sequence : events.get(events.size() - 1).getSequence();
+            out.write("],\"next\":" + next + "}");
+        }
+    }
+
+    private <T> void streamPage(HttpExchange exchange, T[] page, PageReader<T> reader, Function<T, String> toJson)
+            throws IOException {
+        Map<String, String> query = queryOf(exchange);
+        String offsetParam = query.get("offset");
+        int offset = offsetParam == null ? 0 : parseNumber(offsetParam, "offset");
+        int limit = limitOf(query);
+        try (Writer out = openList(exchange)) {
+            int written = 0;
+            while (written < limit) {
+                int count = Math.min(reader.read(offset + written, page), limit - written);
+                for (int i = 0; i < count; i++) {
+                    out.write(written + i == 0 ? "" : ",");
+                    out.write(toJson.apply(page[i]));
+                }
+                written += count;
+                if (count == 0) {
+                    break;
+                }
+            }
+            out.write("],\"next\":" + (written == limit ? Integer.toString(offset + written) : "null") + "}");
+        }
+    }
+
+    // Starts a chunked 200 response and writes the opening of the list object.
+    private static Writer openList(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 1 << 16);
+        out.write("{\"items\":[");
+        return out;
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, "{\"error\":" + Exporter.json(message == null ? "" : message) + "}");
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equals(method)) {
+            exchange.getResponseHeaders().set("Allow", method);
+            throw new HttpError(405, "Method " + exchange.getRequestMethod() + " not allowed here.");
+        }
+    }
+
+    private static Map<String, String> queryOf(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int split = pair.indexOf('=');
+            String key = URLDecoder.decode(split < 0 ? pair : pair.substring(0, split), StandardCharsets.UTF_8);
+            String value = split < 0 ? "" : URLDecoder.decode(pair.substring(split + 1), StandardCharsets.UTF_8);
+            if (!value.isEmpty()) {
+                params.put(key, value);
+            }
+        }
+        return params;
+    }
+
+    private static int limitOf(Map<String, String> query) {
+        String limit = query.get("limit");
+        int value = limit == null ? DEFAULT_LIMIT : parseNumber(limit, "limit");
+        if (value < 1 || value > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        return value;
+    }
+
+    private static Map<String, String> readBody(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            throw new IllegalArgumentException("Request body is too large.");
+        }
+        return new JsonReader(new String(body, StandardCharsets.UTF_8)).readObject();
+    }
+
+    private static String required(Map<String, String> body, String field) {
+        String value = body.get(field);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is required.");
+        }
+        return value;
+    }
+
+    private static int number(Map<String, String> body, String field) {
+        return parseNumber(required(body, field), field);
+    }
+
+    private static int parseId(String value) {
+        int id = parseNumber(value, "ID");
+        if (id <= 0) {
+            throw new HttpError(404, "No record with ID " + value + ".");
+        }
+        return id;
+    }
+
+    private static int parseNumber(String value, String field) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + " '" + value + "'.");
+        }
+    }
+
+    // Reads a flat JSON object whose members are strings, numbers, booleans or null, which is
+    // all the API accepts. Values come back as text; null members are left out.
+    private static final class JsonReader {
+        private final String text;
+        private int position;
+
+        JsonReader(String text) {
+            this.text = text;
+        }
+
+        Map<String, String> readObject() {
+            Map<String, String> members = new HashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                position++;
+            } else {
+                do {
+                    String name = readString();
+                    expect(':');
+                    String value = peek() == '"' ? readString() : readLiteral();
+                    if (value != null) {
+                        members.put(name, value);
+                    }
+                } while (consume(','));
+                expect('}');
+            }
+            if (peek() != -1) {
+                throw malformed();
+            }
+            return members;
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (position >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw malformed();
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw malformed();
+                        }
+                        position += 4;
+                        break;
+                    default: sb.append(escaped);
+                }
+            }
+            throw malformed();
+        }
+
+        // Numbers, true and false as written; null for null.
+        private String readLiteral() {
+            int start = position;
+            while (position < text.length() && ",}] \t\r\n".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.isEmpty()) {
+                throw malformed();
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private int peek() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+            return position < text.length() ? text.charAt(position) : -1;
+        }
+
+        private boolean consume(char c) {
+            if (peek() == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!consume(c)) {
+                throw malformed();
+            }
+        }
+
+        private IllegalArgumentException malformed() {
+            return new IllegalArgumentException("Malformed JSON at offset " + position + ".");
+        }
+    }
+}
+
+// Splits a batch script into lines of comma-separated fields, quoted as in CSV where a value
+// holds a comma. A quote never spans lines, so one left open cannot swallow the rest of the
+// script; the line ends there and hasOpenQuote reports it. It reads straight from a char buffer with no per-token regex matching, which
+// is what makes Scanner too slow for scripts with millions of commands.
+class BatchTokenizer {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder field = new StringBuilder();
+    private int position;
+    private int limit;
+    private long line;
+    private boolean openQuote;
+
+    public BatchTokenizer(Reader in) {
+        this.in = in;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    // True when the line last read ended inside a quoted field.
+    public boolean hasOpenQuote() {
+        return openQuote;
+    }
+
+    // Replaces the contents of fields with those of the next line; false at end of input.
+    public boolean next(List<String> fields) throws IOException {
+        fields.clear();
+        int c = read();
+        if (c < 0) {
+            return false;
+        }
+        line++;
+        field.setLength(0);
+        boolean quoted = false;
+        while (c >= 0 && c != '\n') {
+            if (c == '"') {
+                if (quoted && peek() == '"') {
+                    field.append('"');
+                    read();
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        fields.add(field.toString().trim());
+        openQuote = quoted;
+        return true;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        limit = in.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+}
+
+public class HospitalManagementSystem {
+
+    // Opened by main once the arguments are known to be good
+    private static HospitalService service;
+    private static final Scanner scanner = new Scanner(System.in);
+
+    private static final int DEFAULT_PORT = 8080;
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: hospital-console [--batch [script] | --server [port] | --help]",
+            "  (no option)      interactive menu",
+            "  --batch [script] runs the commands of script, or of standard input for - (the default)",
+            "  --server [port]  serves the HTTP API on localhost (default port " + DEFAULT_PORT + ").",
+            "                   Requests run on a fixed pool of platform threads, not virtual threads:",
+            "                   this build targets Java 17, and virtual threads need Java 21.");
+
+    public static void main(String[] args) {
+        if (args.length > 0 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            System.out.println(USAGE);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            // A script is rerun as a whole if it dies part way, so it need not wait on each
+            // write; closing the service at the end flushes the log.
+            service = openService(HospitalService.Durability.ASYNC);
+            runBatch(args.length > 1 ? args[1] : "-");
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--server")) {
+            int port;
+            try {
+                port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+            } catch (NumberFormatException e) {
+                System.out.println("Error: not a port number: " + args[1]);
+                System.out.println(USAGE);
+                return;
+            }
+            service = openService(HospitalService.Durability.SYNC);
+            runServer(port);
+            return;
+        }
+        if (args.length > 0) {
+            System.out.println("Error: unknown option " + args[0]);
+            System.out.println(USAGE);
+            return;
+        }
+        service = openService(HospitalService.Durability.SYNC);
+        service.addSampleDataIfEmpty();
+
+        run();
+    }
+
+    private static HospitalService openService(HospitalService.Durability durability) {
+        Path dataDir = Paths.get(System.getProperty("hospital.dataDir", "hospital-data"));
+        try {
+            return HospitalService.open(dataDir, durability);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Warning: could not open " + dataDir + ": " + e.getMessage());
+            System.out.println("Changes will not be saved.");
+            return new HospitalService();
+        }
+    }
+
+    public static void run() {
+        boolean running = true;
+        while (running) {
+            displayMenu();
+            int choice = getIntInput();
+
+            switch (choice) {
+                case 1:
+                    handleAddPatient();
+                    break;
+                case 2:
+                    handleAddDoctor();
+                    break;
+                case 3:
+                    handleScheduleAppointment();
+                    break;
+                case 4:
+                    handleViewPatients();
+                    break;
+                case 5:
+                    handleViewDoctors();
+                    break;
+                case 6:
+                    handleViewAppointments();
+                    break;
+                case 7:
+                    handleImportCsv();
+                    break;
+                case 8:
+                    handleExport();
+                    break;
+                case 9:
+                    System.out.println();
+                    System.out.print(service.getMetrics().toText());
+                    break;
+                case 10:
+                    handleSearch();
+                    break;
+                case 11:
+                    handleDoctorDirectory();
+                    break;
+                case 12:
+                    running = false;
+                    closeService();
+                    System.out.println("Exiting system. Goodbye!");
+                    break;
+                default:
+                    System.out.println("Invalid choice. Please try again (1-12).");
+            }
+            if (running) {
+                System.out.println("\nPress Enter to continue...");
+                scanner.nextLine(); 
+            }
+        }
+        scanner.close();
+    }
+
+    // Serves the HTTP API on localhost until the process is stopped; pending changes are
+    // saved on the way out.
+    private static void runServer(int port) {
+        ApiServer server;
+        try {
+            server = new ApiServer(service, port);
+        } catch (IOException e) {
+            System.out.println("Error: could not listen on port " + port + ": " + e.getMessage());
+            closeService();
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            closeService();
+        }));
+        server.start();
+        System.out.println("Serving the hospital API on http://localhost:" + server.getPort() + "/ ("
+                + ApiServer.requestThreads() + " platform request threads)");
+    }
+
+    // Runs the commands of a script (or of standard input for "-") back to back, without
+    // prompts. One command per line, its arguments separated by commas:
+    //
+    //   patient,<name>,<age>,<diagnosis>        doctor,<name>,<specialization>
+    //   schedule,<patient id>,<doctor id or specialization>,<date>
+    //   patients | doctors | appointments | stats
+    //   search,<query>                          directory,<specialization>
+    //   import,<csv file>
+    //   export,patients|doctors,<file>          export,appointments,<file>[,<doctor id>,<from>,<to>]
+    //
+    // Blank lines and lines starting with # are skipped. All output, including the service's
+    // own messages, goes through one buffer that is flushed once, when the script ends.
+    private static void runBatch(String script) {
+        PrintStream console = System.out;
+        PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16),
+                false, StandardCharsets.UTF_8);
+        System.setOut(out);
+        long start = System.nanoTime();
+        long commands = 0;
+        long failed = 0;
+        try (Reader in = script.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(script), StandardCharsets.UTF_8)) {
+            BatchTokenizer tokenizer = new BatchTokenizer(in);
+            List<String> fields = new ArrayList<>();
+            while (tokenizer.next(fields)) {
+                if ((fields.size() == 1 && fields.get(0).isEmpty()) || fields.get(0).startsWith("#")) {
+                    continue;
+                }
+                commands++;
+                try {
+                    if (tokenizer.hasOpenQuote()) {
+                        throw new IllegalArgumentException("Unterminated quote.");
+                    }
+                    if (!runCommand(fields)) {
+                        failed++;
+                    }
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Line " + tokenizer.getLine() + ": " + e.getMessage());
+                    failed++;
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Error: could not read " + script + ": " + e.getMessage());
+        }
+        closeService();
+        System.out.printf("Ran %d commands (%d failed) in %d ms.%n", commands, failed, (System.nanoTime() - start) / 1_000_000);
+        out.flush();
+        System.setOut(console);
+    }
+
+    // Returns false when the service turned the command down.
+    private static boolean runCommand(List<String> fields) {
+        String command = fields.get(0).toLowerCase(Locale.ROOT);
+        switch (command) {
+            case "patient":
+                expectArguments(fields, 3, "patient,<name>,<age>,<diagnosis>");
+                System.out.println("Patient added: " + service.addPatient(fields.get(1), parseNumber(fields.get(2)), fields.get(3)));
+                return true;
+            case "doctor":
+                expectArguments(fields, 2, "doctor,<name>,<specialization>");
+                System.out.println("Doctor added: " + service.addDoctor(fields.get(1), fields.get(2)));
+                return true;
+            case "schedule": {
+                expectArguments(fields, 3, "schedule,<patient id>,<doctor id or specialization>,<date>");
+                Appointment app = schedule(parseNumber(fields.get(1)), fields.get(2), fields.get(3));
+                if (app == null) {
+                    return false;
+                }
+                System.out.println("Appointment scheduled: " + app);
+                return true;
+            }
+            case "patients":
+                handleViewPatients();
+                return true;
+            case "doctors":
+                handleViewDoctors();
+                return true;
+            case "appointments":
+                handleViewAppointments();
+                return true;
+            case "stats":
+                System.out.print(service.getMetrics().toText());
+                return true;
+            case "search":
+                expectArguments(fields, 1, "search,<query>");
+                printSearchResults(fields.get(1));
+                return true;
+            case "directory":
+                expectArguments(fields, 1, "directory,<specialization>");
+                printDirectory(fields.get(1));
+                return true;
+            case "import": {
+                expectArguments(fields, 1, "import,<csv file>");
+                return importCsv(Paths.get(fields.get(1)));
+            }
+            case "export":
+                return runExport(fields);
+            default:
+                throw new IllegalArgumentException("Unknown command \"" + fields.get(0) + "\".");
+        }
+    }
+
+    private static boolean runExport(List<String> fields) {
+        expectArguments(fields, 2, "export,<patients|doctors|appointments>,<file>");
+        Path file = Paths.get(fields.get(2));
+        String what = fields.get(1).toLowerCase(Locale.ROOT);
+        try {
+            long rows;
+            if (what.equals("patients")) {
+                rows = Exporter.exportPatients(service, file);
+            } else if (what.equals("doctors")) {
+                rows = Exporter.exportDoctors(service, file);
+            } else if (what.equals("appointments")) {
+                String doctor = fields.size() > 3 ? fields.get(3) : "";
+                rows = Exporter.exportAppointments(service, file, doctor.isEmpty() ? 0 : parseNumber(doctor),
+                        fields.size() > 4 ? blankToNull(fields.get(4)) : null,
+                        fields.size() > 5 ? blankToNull(fields.get(5)) : null);
+            } else {
+                throw new IllegalArgumentException("Cannot export \"" + fields.get(1) + "\".");
+            }
+            System.out.println("Exported " + rows + " rows to " + file + ".");
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Error: could not write " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void expectArguments(List<String> fields, int count, String usage) {
+        if (fields.size() <= count) {
+            throw new IllegalArgumentException("Expected " + usage + ".");
+        }
+    }
+
+    private static int parseNumber(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("\"" + value + "\" is not a number.");
+        }
+    }
+
+    private static void closeService() {
+        try {
+            service.close();
+        } catch (IOException e) {
+            System.out.println("Error: could not save pending changes: " + e.getMessage());
+        }
+    }
+
+    private static void displayMenu() {
+        System.out.println("\n--- Hospital Management System ---");
+        System.out.println("1. Add Patient");
+        System.out.println("2. Add Doctor");
+        System.out.println("3. Schedule Appointment");
+        System.out.println("4. View Patients");
+        System.out.println("5. View Doctors");
+        System.out.println("6. View Appointments");
+        System.out.println("7. Import from CSV");
+        System.out.println("8. Export to File");
+        System.out.println("9. Stats");
+        System.out.println("10. Search");
+        System.out.println("11. Doctor Directory");
+        System.out.println("12. Exit");
+        System.out.print("Enter your choice: ");
+    }
+
+    private static void handleAddPatient() {
+        System.out.print("Enter Patient Name: ");
+        String name = scanner.nextLine();
+        System.out.print("Enter Patient Age: ");
+        int age = getIntInput();
+        System.out.print("Enter Patient Diagnosis: ");
+        String diagnosis = scanner.nextLine();
+
+        Patient p = service.addPatient(name, age, diagnosis);
+        System.out.println("Patient added successfully: " + p);
+    }
+
+    private static void handleAddDoctor() {
+        System.out.print("Enter Doctor Name: ");
+        String name = scanner.nextLine();
+        System.out.print("Enter Doctor Specialization: ");
+        String specialization = scanner.nextLine();
+
+        Doctor d = service.addDoctor(name, specialization);
+        System.out.println("Doctor added successfully: " + d);
+    }
+
+    private static void handleScheduleAppointment() {
+        System.out.println("\n--- Available Doctors ---");
+        handleViewDoctors();
+        System.out.print("Enter Doctor ID (or a specialization to book the least busy doctor): ");
+        String doctor = scanner.nextLine().trim();
+
+        System.out.println("\n--- Registered Patients ---");
+        handleViewPatients();
+        System.out.print("Enter Patient ID: ");
+        int patId = getIntInput();
+
+        System.out.print("Enter Appointment Date (YYYY-MM-DD or YYYY-MM-DD HH:mm): ");
+        String date = scanner.nextLine();
+
+        Appointment app = schedule(patId, doctor, date);
+        if (app != null) {
+            System.out.println("Appointment scheduled successfully!");
+            System.out.println(app);
+        } else {
+            System.out.println("Failed to schedule appointment. Check IDs and date.");
+        }
+    }
+
+    // A number picks the doctor with that ID; anything else names a specialization, whose
+    // least loaded doctor free at the date gets the appointment. Prints why the service
+    // turned the booking down and returns null.
+    private static Appointment schedule(int patientId, String doctor, String text) {
+        try {
+            LocalDateTime date = AppointmentTime.parseDateTime(text);
+            if (!doctor.isEmpty() && doctor.length() < 10 && doctor.chars().allMatch(Character::isDigit)) {
+                return service.scheduleAppointment(patientId, Integer.parseInt(doctor), date);
+            }
+            return service.scheduleWithLeastLoadedDoctor(patientId, doctor, date);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void handleViewPatients() {
+        List<Patient> patients = service.getAllPatients();
+        if (patients.isEmpty()) {
+            System.out.println("No patients found.");
+            return;
+        }
+        System.out.println("\n--- Patient List ---");
+        for (Patient p : patients) {
+            System.out.println(p);
+        }
+    }
+
+    private static void handleViewDoctors() {
+        List<Doctor> doctors = service.getAllDoctors();
+        if (doctors.isEmpty()) {
+            System.out.println("No doctors found.");
+            return;
+        }
+        System.out.println("\n--- Doctor List ---");
+        for (Doctor d : doctors) {
+            System.out.println(d);
+        }
+    }
+
+    private static void handleViewAppointments() {
+        List<Appointment> appointments = service.getAllAppointments();
+        if (appointments.isEmpty()) {
+            System.out.println("No appointments found.");
+            return;
+        }
+        System.out.println("\n--- Appointment List ---");
+        for (Appointment a : appointments) {
+            System.out.println("--------------------");
+            System.out.println(a);
+        }
+        System.out.println("--------------------");
+    }
+
+    private static void handleSearch() {
+        System.out.print("Search for: ");
+        printSearchResults(scanner.nextLine());
+    }
+
+    private static void printSearchResults(String query) {
+        List<Doctor> doctors = service.searchDoctors(query, 20);
+        List<Patient> patients = service.searchPatients(query, 20);
+        if (doctors.isEmpty() && patients.isEmpty()) {
+            System.out.println("No matches found.");
+            return;
+        }
+        for (Doctor d : doctors) {
+            System.out.println(d);
+        }
+        for (Patient p : patients) {
+            System.out.println(p);
+        }
+    }
+
+    private static void handleDoctorDirectory() {
+        System.out.print("Enter Specialization: ");
+        printDirectory(scanner.nextLine().trim());
+    }
+
+    private static void printDirectory(String specialization) {
+        List<DoctorDirectory.Listing> listings = service.getDoctorDirectory(specialization, Integer.MAX_VALUE);
+        if (listings.isEmpty()) {
+            System.out.println("No doctors found for " + specialization + ".");
+            return;
+        }
+        System.out.println("\n--- " + specialization + ", least busy first ---");
+        for (DoctorDirectory.Listing listing : listings) {
+            System.out.println(listing.getDoctor() + " - " + listing.getLoad() + " appointments");
+        }
+    }
+
+    private static void handleImportCsv() {
+        System.out.print("Enter CSV file path: ");
+        importCsv(Paths.get(scanner.nextLine().trim()));
+    }
+
+    private static boolean importCsv(Path file) {
+        CsvImporter.Report report;
+        try {
+            report = CsvImporter.importFile(service, file);
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Error: could not read " + file + ": " + e.getMessage());
+            return false;
+        }
+        System.out.println(report);
+        int shown = Math.min(report.getErrors().size(), 20);
+        for (int i = 0; i < shown; i++) {
+            System.out.println("  " + report.getErrors().get(i));
+        }
+        if (report.getRejected() > shown) {
+            System.out.println("  ... and " + (report.getRejected() - shown) + " more.");
+        }
+        return report.getRejected() == 0;
+    }
+
+    private static void handleExport() {
+        System.out.print("Export (1) Patients, (2) Doctors or (3) Appointments: ");
+        int what = getIntInput();
+        if (what < 1 || what > 3) {
+            System.out.println("Invalid choice.");
+            return;
+        }
+        int doctorId = 0;
+        String fromDate = null;
+        String toDate = null;
+        if (what == 3) {
+            System.out.print("Doctor ID (blank for all): ");
+            String doctor = scanner.nextLine().trim();
+            System.out.print("From date (blank for no limit): ");
+            fromDate = blankToNull(scanner.nextLine());
+            System.out.print("To date (blank for no limit): ");
+            toDate = blankToNull(scanner.nextLine());
+            try {
+                doctorId = doctor.isEmpty() ? 0 : Integer.parseInt(doctor);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid doctor ID.");
+                return;
+            }
+        }
+        System.out.print("Output file (.csv or .jsonl): ");
+        Path file = Paths.get(scanner.nextLine().trim());
+        try {
+            long rows;
+            if (what == 1) {
+                rows = Exporter.exportPatients(service, file);
+            } else if (what == 2) {
+                rows = Exporter.exportDoctors(service, file);
+            } else {
+                rows = Exporter.exportAppointments(service, file, doctorId, fromDate, toDate);
+            }
+            System.out.println("Exported " + rows + " rows to " + file + ".");
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Error: could not write " + file + ": " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private static String blankToNull(String value) {
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static int getIntInput() {
+        while (true) {
+            try {
+                int value = scanner.nextInt();
+                scanner.nextLine(); 
+                return value;
+            } catch (InputMismatchException e) {
+                System.out.print("Invalid input. Please enter a number: ");
+                scanner.nextLine(); 
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package hospital.console;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hospital.core.HospitalService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ApiServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private HospitalService service;
+    private ApiServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        service = new HospitalService();
+        // Port 0 picks a free ephemeral port
+        server = new ApiServer(service, 0);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        server.stop();
+        service.close();
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String json) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(json))
+                .header("Content-Type", "application/json").build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    @Test
+    void patientNeedsOnlyAName() throws Exception {
+        HttpResponse<String> created = post("/patients", "{\"name\":\"Jane Roe\",\"contactInfo\":\"555-5678\"}");
+        assertEquals(201, created.statusCode(), created.body());
+        assertEquals("{\"id\":1,\"name\":\"Jane Roe\",\"age\":null,\"diagnosis\":null,\"contactInfo\":\"555-5678\"}",
+                created.body());
+        assertEquals(201, post("/patients", "{\"name\":\"Alice\",\"age\":30,\"diagnosis\":\"Migraines\"}").statusCode());
+        assertEquals(30, service.findPatientById(2).getAge());
+        assertEquals(400, post("/patients", "{\"age\":30}").statusCode());
+        assertEquals(400, post("/patients", "{\"name\":\"Bob\",\"age\":\"old\"}").statusCode());
+
+        assertEquals(200, get("/patients/1").statusCode());
+        assertEquals(404, get("/patients/9").statusCode());
+        HttpResponse<String> list = get("/patients?limit=1");
+        assertTrue(list.body().startsWith("{\"items\":[{\"id\":1,"), list.body());
+        assertTrue(list.body().endsWith("],\"next\":1}"), list.body());
+    }
+
+    @Test
+    void bookingsReportConflictsAndMissingRecords() throws Exception {
+        post("/doctors", "{\"name\":\"Dr. Smith\",\"specialization\":\"Cardiology\"}");
+        post("/patients", "{\"name\":\"Alice\"}");
+        post("/patients", "{\"name\":\"Bob\"}");
+
+        HttpResponse<String> booked = post("/appointments", "{\"patientId\":1,\"doctorId\":1,\"date\":\"2031-01-01 09:00\"}");
+        assertEquals(201, booked.statusCode(), booked.body());
+        assertEquals(409, post("/appointments", "{\"patientId\":2,\"doctorId\":1,\"date\":\"2031-01-01 09:15\"}").statusCode());
+        assertEquals(404, post("/appointments", "{\"patientId\":9,\"doctorId\":1,\"date\":\"2031-01-01 10:00\"}").statusCode());
+        assertEquals(404, post("/appointments", "{\"patientId\":2,\"specialization\":\"Surgery\",\"date\":\"2031-01-01 10:00\"}").statusCode());
+        assertEquals(201, post("/appointments", "{\"patientId\":2,\"specialization\":\"Cardiology\",\"date\":\"2031-01-01 10:00\"}").statusCode());
+
+        HttpResponse<String> list = get("/appointments?doctorId=1");
+        assertEquals(200, list.statusCode());
+        assertTrue(list.body().endsWith("],\"next\":null}"), list.body());
+        assertEquals(2, service.getAppointmentCount());
+        assertTrue(get("/changes?after=3").body().contains("\"type\":\"APPOINTMENT_BOOKED\""));
+        assertEquals(405, client.send(HttpRequest.newBuilder(uri("/patients/1")).DELETE().build(),
+                HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+}
\ No newline at end of file
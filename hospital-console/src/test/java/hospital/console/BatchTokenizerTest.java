@@ -0,0 +1,70 @@
+package hospital.console;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BatchTokenizerTest {
+    private static List<List<String>> lines(String script) throws IOException {
+        BatchTokenizer tokenizer = new BatchTokenizer(new StringReader(script));
+        List<List<String>> lines = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        while (tokenizer.next(fields)) {
+            lines.add(new ArrayList<>(fields));
+        }
+        return lines;
+    }
+
+    @Test
+    void fieldsAreSplitOnCommasAndTrimmed() throws IOException {
+        assertEquals(List.of(List.of("patient", "Alice", "30", "Flu"), List.of("doctors")),
+                lines("patient, Alice ,30,Flu\r\ndoctors"));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndDoubledQuotes() throws IOException {
+        assertEquals(List.of(List.of("doctor", "Smith, John", "Cardiology")),
+                lines("doctor,\"Smith, John\",Cardiology\n"));
+        assertEquals(List.of(List.of("search", "say \"hi\"")), lines("search,\"say \"\"hi\"\"\"\n"));
+        assertEquals(List.of(List.of("search", "")), lines("search,\"\"\n"));
+    }
+
+    @Test
+    void emptyFieldsAndLinesAreKept() throws IOException {
+        assertEquals(List.of(List.of("a", "", "b", ""), List.of(""), List.of("c")), lines("a,,b,\n\nc\n"));
+    }
+
+    // An open quote ends with its line, so the commands after it still run.
+    @Test
+    void unterminatedQuoteEndsAtTheLineBreak() throws IOException {
+        BatchTokenizer tokenizer = new BatchTokenizer(new StringReader("search,\"open, still\ndoctors\n"));
+        List<String> fields = new ArrayList<>();
+
+        assertTrue(tokenizer.next(fields));
+        assertEquals(List.of("search", "open, still"), fields);
+        assertTrue(tokenizer.hasOpenQuote());
+
+        assertTrue(tokenizer.next(fields));
+        assertEquals(List.of("doctors"), fields);
+        assertFalse(tokenizer.hasOpenQuote());
+        assertEquals(2, tokenizer.getLine());
+        assertFalse(tokenizer.next(fields));
+    }
+
+    // The read buffer holds 65536 chars; the doubled quote here straddles the first refill.
+    @Test
+    void lineLongerThanTheBufferIsReadWhole() throws IOException {
+        String prefix = "search,\"";
+        String before = "y".repeat(65_536 - prefix.length() - 1);
+        String after = "z".repeat(10_000);
+        List<List<String>> lines = lines(prefix + before + "\"\"" + after + "\",last\ndoctors");
+        assertEquals(List.of("search", before + "\"" + after, "last"), lines.get(0));
+        assertEquals(List.of("doctors"), lines.get(1));
+    }
+}
\ No newline at end of file
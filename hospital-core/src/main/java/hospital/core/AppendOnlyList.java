@@ -0,0 +1,65 @@
+package hospital.core;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Append-only list with lock-free reads. Writers serialize on a short internal lock;
+// readers see a consistent prefix and never throw ConcurrentModificationException.
+public class AppendOnlyList<T> extends AbstractList<T> implements RandomAccess {
+    private final Object writeLock = new Object();
+    private volatile Object[] elements = new Object[16];
+    private volatile int size;
+
+    @Override
+    public boolean add(T element) {
+        synchronized (writeLock) {
+            Object[] current = elements;
+            int n = size;
+            if (n == current.length) {
+                current = Arrays.copyOf(current, n * 2);
+                elements = current;
+            }
+            current[n] = element;
+            size = n + 1;
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        int n = size;
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of range.");
+        }
+        return (T) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Fixed-length read-only view of the elements present right now.
+    public List<T> snapshot() {
+        int n = size;
+        Object[] current = elements;
+        return new AbstractList<T>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public T get(int index) {
+                if (index < 0 || index >= n) {
+                    throw new IndexOutOfBoundsException("Index " + index + " out of range.");
+                }
+                return (T) current[index];
+            }
+
+            @Override
+            public int size() {
+                return n;
+            }
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package hospital.core;
+
+public class Appointment {
+    private int id;
+    private Patient patient;
+    private Doctor doctor;
+    private long time;
+
+    public Appointment(int id, Patient patient, Doctor doctor, long time) {
+        this.id = id;
+        this.patient = patient;
+        this.doctor = doctor;
+        this.time = time;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public Doctor getDoctor() {
+        return doctor;
+    }
+
+    // Minutes since the epoch; see AppointmentTime.
+    public long getTime() {
+        return time;
+    }
+
+    public String getDate() {
+        return AppointmentTime.format(time);
+    }
+
+    @Override
+    public String toString() {
+        return "Appointment [ID=" + id + ", Date=" + getDate() + "\n  Patient: " + patient.getName() + 
+               "\n  Doctor: " + doctor.getName() + " (" + doctor.getSpecialization() + ")]";
+    }
+}
\ No newline at end of file
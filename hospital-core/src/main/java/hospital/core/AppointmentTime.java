@@ -0,0 +1,74 @@
+package hospital.core;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+
+// Appointment times are whole minutes since 1970-01-01 00:00 held in a primitive long. Like
+// the times people type in, they carry no zone and are local to the hospital. Comparing,
+// sorting and range checks are plain long arithmetic; text is only parsed on entry and
+// formatted for display, always through the shared formatters below.
+public final class AppointmentTime {
+    public static final long MINUTES_PER_DAY = 24 * 60;
+    public static final DateTimeFormatter DATE =
+            DateTimeFormatter.ofPattern("uuuu-MM-dd").withResolverStyle(ResolverStyle.STRICT);
+    public static final DateTimeFormatter DATE_TIME =
+            DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm").withResolverStyle(ResolverStyle.STRICT);
+
+    private AppointmentTime() {
+    }
+
+    // Accepts "yyyy-MM-dd HH:mm", or "yyyy-MM-dd" for the start of that day.
+    public static long parse(String text) {
+        String value = text == null ? "" : text.trim();
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Date cannot be empty.");
+        }
+        try {
+            if (isDateOnly(value)) {
+                return LocalDate.parse(value, DATE).toEpochDay() * MINUTES_PER_DAY;
+            }
+            return of(LocalDateTime.parse(value, DATE_TIME));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date '" + value + "'. Use YYYY-MM-DD or YYYY-MM-DD HH:mm.");
+        }
+    }
+
+    // Like parse, but a bare date stands for its last minute, so it can end an inclusive range.
+    public static long parseRangeEnd(String text) {
+        long minute = parse(text);
+        return isDateOnly(text.trim()) ? minute + MINUTES_PER_DAY - 1 : minute;
+    }
+
+    // Parses as parse does, for callers that pass the result to the typed service methods.
+    public static LocalDateTime parseDateTime(String text) {
+        return toLocalDateTime(parse(text));
+    }
+
+    public static long of(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    public static LocalDateTime toLocalDateTime(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    // Midnight prints as the bare date, so bookings made by day read back as they were entered.
+    public static String format(long minute) {
+        if (Math.floorMod(minute, MINUTES_PER_DAY) == 0) {
+            return DATE.format(LocalDate.ofEpochDay(Math.floorDiv(minute, MINUTES_PER_DAY)));
+        }
+        return formatDateTime(minute);
+    }
+
+    public static String formatDateTime(long minute) {
+        return DATE_TIME.format(toLocalDateTime(minute));
+    }
+
+    private static boolean isDateOnly(String value) {
+        return value.length() == 10;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,260 @@
+package hospital.core;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Finds free appointment slots. Each working day is cut into slots of a fixed length; every
+// doctor keeps a bitset for each day that has bookings, with one bit per slot that some
+// appointment overlaps, and a day without a bitset is entirely free. A slot is offered when
+// the slots covering a whole appointment from its start are clear. The earliest free slots
+// of a specialization come from merging its doctors in time order through a heap. Doctors
+// join the merge one at a time, and entries hold only a lower bound until they reach the top
+// and are checked against the bitsets, so a query that finds its slots among the first
+// doctors it looks at never touches the rest. Each specialization also counts its taken
+// doctors per slot, which lets a query skip straight past hours in which every one of them
+// is booked.
+public class AvailabilityIndex {
+    // A doctor's free slots are searched at most this many days past the requested time
+    private static final int MAX_SEARCH_DAYS = 366;
+
+    public static final class Slot {
+        private final Doctor doctor;
+        private final long startMinute;
+
+        Slot(Doctor doctor, long startMinute) {
+            this.doctor = doctor;
+            this.startMinute = startMinute;
+        }
+
+        public Doctor getDoctor() { return doctor; }
+        public long getStartMinute() { return startMinute; }
+
+        @Override
+        public String toString() {
+            return AppointmentTime.formatDateTime(startMinute) + "  " + doctor.getName()
+                    + " (" + doctor.getSpecialization() + ")";
+        }
+    }
+
+    private static final class Specialization {
+        final AppendOnlyList<DoctorDays> doctors = new AppendOnlyList<>();
+        // Per epoch day, how many of the doctors have each slot taken
+        final ConcurrentMap<Long, AtomicIntegerArray> taken = new ConcurrentHashMap<>();
+    }
+
+    private static final class DoctorDays {
+        final Doctor doctor;
+        final Specialization specialization;
+        // Keyed by epoch day
+        final ConcurrentMap<Long, AtomicLongArray> days = new ConcurrentHashMap<>();
+
+        DoctorDays(Doctor doctor, Specialization specialization) {
+            this.doctor = doctor;
+            this.specialization = specialization;
+        }
+    }
+
+    private static final class Candidate implements Comparable<Candidate> {
+        final DoctorDays doctor;
+        // Position of the doctor in its specialization, the order doctors were added in
+        final int order;
+        long minute;
+        // false while minute is only a lower bound for the doctor's next free slot
+        boolean resolved;
+
+        Candidate(DoctorDays doctor, int order, long minute) {
+            this.doctor = doctor;
+            this.order = order;
+            this.minute = minute;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int byTime = Long.compare(minute, other.minute);
+            return byTime != 0 ? byTime : Integer.compare(order, other.order);
+        }
+    }
+
+    private final long openMinute;
+    private final long slotMinutes;
+    private final int slotsPerDay;
+    private final int slotsPerBooking;
+    private final int words;
+    private final ConcurrentMap<Integer, DoctorDays> doctors = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Specialization> bySpecialization = new ConcurrentHashMap<>();
+
+    public AvailabilityIndex(LocalTime open, LocalTime close, int slotMinutes, long bookingMinutes) {
+        if (!open.isBefore(close)) {
+            throw new IllegalArgumentException("Working hours must end after they start.");
+        }
+        if (slotMinutes <= 0) {
+            throw new IllegalArgumentException("Slot length must be positive.");
+        }
+        this.openMinute = open.getHour() * 60 + open.getMinute();
+        this.slotMinutes = slotMinutes;
+        this.slotsPerDay = (int) ((close.getHour() * 60 + close.getMinute() - openMinute) / slotMinutes);
+        this.slotsPerBooking = (int) ceilDiv(bookingMinutes, slotMinutes);
+        if (slotsPerBooking > slotsPerDay) {
+            throw new IllegalArgumentException("Working hours are too short for one appointment.");
+        }
+        this.words = (slotsPerDay + 63) / 64;
+    }
+
+    public void addDoctor(Doctor doctor) {
+        Specialization specialization =
+                bySpecialization.computeIfAbsent(doctor.getSpecializationCode(), k -> new Specialization());
+        DoctorDays days = new DoctorDays(doctor, specialization);
+        if (doctors.putIfAbsent(doctor.getId(), days) == null) {
+            specialization.doctors.add(days);
+        }
+    }
+
+    // Marks every working slot that [startMinute, startMinute + length) overlaps as taken.
+    public void book(int doctorId, long startMinute, long length) {
+        DoctorDays doctor = doctors.get(doctorId);
+        if (doctor == null) {
+            return;
+        }
+        long end = startMinute + length;
+        for (long day = Math.floorDiv(startMinute, AppointmentTime.MINUTES_PER_DAY);
+             day * AppointmentTime.MINUTES_PER_DAY < end; day++) {
+            long dayOpen = day * AppointmentTime.MINUTES_PER_DAY + openMinute;
+            int first = (int) Math.max(0, Math.floorDiv(startMinute - dayOpen, slotMinutes));
+            int last = (int) Math.min(slotsPerDay, ceilDiv(end - dayOpen, slotMinutes));
+            if (first >= last) {
+                continue;
+            }
+            AtomicLongArray bits = doctor.days.computeIfAbsent(day, k -> new AtomicLongArray(words));
+            AtomicIntegerArray taken = doctor.specialization.taken.computeIfAbsent(day, k -> new AtomicIntegerArray(slotsPerDay));
+            for (int slot = first; slot < last; slot++) {
+                long mask = 1L << slot;
+                if ((bits.getAndAccumulate(slot >>> 6, mask, (word, bit) -> word | bit) & mask) == 0) {
+                    taken.incrementAndGet(slot);
+                }
+            }
+        }
+    }
+
+    // The earliest count free slots at or after fromMinute with any doctor of the
+    // specialization, ordered by time and then by the order the doctors were added in.
+    public List<Slot> findFree(int specializationCode, long fromMinute, int count) {
+        List<Slot> slots = new ArrayList<>(Math.max(0, count));
+        Specialization specialization = bySpecialization.get(specializationCode);
+        if (specialization == null || count <= 0) {
+            return slots;
+        }
+        List<DoctorDays> matching = specialization.doctors.snapshot();
+        long lastDay = Math.floorDiv(fromMinute, AppointmentTime.MINUTES_PER_DAY) + MAX_SEARCH_DAYS;
+        long first = firstOpenSlot(specialization, slotAtOrAfter(fromMinute), matching.size(), lastDay);
+        if (first < 0) {
+            return slots;
+        }
+        PriorityQueue<Candidate> heap = new PriorityQueue<>();
+        int joined = 0;
+        while (slots.size() < count && (joined < matching.size() || !heap.isEmpty())) {
+            // Doctors join at first; everything in the heap has moved past it, so they come first
+            Candidate top = joined < matching.size()
+                    ? new Candidate(matching.get(joined), joined++, first) : heap.poll();
+            if (!top.resolved) {
+                long free = nextFree(top.doctor, top.minute, lastDay);
+                if (free < 0) {
+                    continue;
+                }
+                top.resolved = true;
+                // Every other entry starts at or after the bound, so a slot at the bound is next
+                if (free != top.minute) {
+                    top.minute = free;
+                    heap.add(top);
+                    continue;
+                }
+            }
+            slots.add(new Slot(top.doctor.doctor, top.minute));
+            top.minute = slotAtOrAfter(top.minute + 1);
+            top.resolved = false;
+            heap.add(top);
+        }
+        return slots;
+    }
+
+    // The start of the first slot at or after minute that leaves room for a whole appointment
+    // before closing time.
+    private long slotAtOrAfter(long minute) {
+        long day = Math.floorDiv(minute, AppointmentTime.MINUTES_PER_DAY);
+        long dayOpen = day * AppointmentTime.MINUTES_PER_DAY + openMinute;
+        long slot = Math.max(0, ceilDiv(minute - dayOpen, slotMinutes));
+        if (slot + slotsPerBooking > slotsPerDay) {
+            return dayOpen + AppointmentTime.MINUTES_PER_DAY;
+        }
+        return dayOpen + slot * slotMinutes;
+    }
+
+    // The first slot at or after fromMinute, a slot start, that not all doctorCount doctors
+    // have taken, or -1 if there is none up to lastDay. No doctor can be free any earlier.
+    private long firstOpenSlot(Specialization specialization, long fromMinute, int doctorCount, long lastDay) {
+        long day = Math.floorDiv(fromMinute, AppointmentTime.MINUTES_PER_DAY);
+        int slot = (int) ((fromMinute - day * AppointmentTime.MINUTES_PER_DAY - openMinute) / slotMinutes);
+        for (; day <= lastDay; day++, slot = 0) {
+            AtomicIntegerArray taken = specialization.taken.get(day);
+            for (; slot + slotsPerBooking <= slotsPerDay; slot++) {
+                if (taken == null || taken.get(slot) < doctorCount) {
+                    return day * AppointmentTime.MINUTES_PER_DAY + openMinute + slot * slotMinutes;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // The first free slot at or after fromMinute, which must be a slot start, or -1 if there
+    // is none up to lastDay.
+    private long nextFree(DoctorDays doctor, long fromMinute, long lastDay) {
+        long day = Math.floorDiv(fromMinute, AppointmentTime.MINUTES_PER_DAY);
+        int slot = (int) ((fromMinute - day * AppointmentTime.MINUTES_PER_DAY - openMinute) / slotMinutes);
+        for (; day <= lastDay; day++, slot = 0) {
+            AtomicLongArray bits = doctor.days.get(day);
+            int free = bits == null ? slot : firstFreeRun(bits, slot);
+            if (free >= 0) {
+                return day * AppointmentTime.MINUTES_PER_DAY + openMinute + free * slotMinutes;
+            }
+        }
+        return -1;
+    }
+
+    // The first slot at or after from that starts slotsPerBooking clear slots, or -1.
+    private int firstFreeRun(AtomicLongArray bits, int from) {
+        int start = nextBit(bits, from, false);
+        while (start + slotsPerBooking <= slotsPerDay) {
+            int taken = nextBit(bits, start, true);
+            if (taken >= start + slotsPerBooking) {
+                return start;
+            }
+            start = nextBit(bits, taken + 1, false);
+        }
+        return -1;
+    }
+
+    // The index of the first bit at or after from that is set (or clear), or slotsPerDay.
+    private int nextBit(AtomicLongArray bits, int from, boolean set) {
+        int index = from >>> 6;
+        if (index >= words) {
+            return slotsPerDay;
+        }
+        long word = (set ? bits.get(index) : ~bits.get(index)) & (-1L << from);
+        while (word == 0) {
+            if (++index == words) {
+                return slotsPerDay;
+            }
+            word = set ? bits.get(index) : ~bits.get(index);
+        }
+        return Math.min(slotsPerDay, index * 64 + Long.numberOfTrailingZeros(word));
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+}
\ No newline at end of file
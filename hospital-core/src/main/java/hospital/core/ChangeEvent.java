@@ -0,0 +1,29 @@
+package hospital.core;
+
+// One change to the store as delivered by ChangeFeed. Sequence numbers start at 1 and go up
+// by one per change; they restart with the program, like the feed's memory of past events.
+public final class ChangeEvent {
+    public enum Type { PATIENT_ADDED, DOCTOR_ADDED, APPOINTMENT_BOOKED }
+
+    private final long sequence;
+    private final Type type;
+    private final Object entity;
+
+    ChangeEvent(long sequence, Type type, Object entity) {
+        this.sequence = sequence;
+        this.type = type;
+        this.entity = entity;
+    }
+
+    public long getSequence() { return sequence; }
+    public Type getType() { return type; }
+    public Object getEntity() { return entity; }
+    public Patient getPatient() { return type == Type.PATIENT_ADDED ? (Patient) entity : null; }
+    public Doctor getDoctor() { return type == Type.DOCTOR_ADDED ? (Doctor) entity : null; }
+    public Appointment getAppointment() { return type == Type.APPOINTMENT_BOOKED ? (Appointment) entity : null; }
+
+    @Override
+    public String toString() {
+        return sequence + " " + type + " " + entity;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,264 @@
+package hospital.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Publishes store changes to any number of Flow subscribers. The most recent events are kept
+// in one ring that all subscribers read from, each through its own cursor; how far a cursor
+// may trail the newest event is that subscriber's buffer size. Events go out in batches of
+// up to maxBatch, one batch per requested item, on the feed's delivery threads, so a
+// publisher only stores the event and wakes subscribers with outstanding demand; it never
+// waits for one. A subscriber that falls a full buffer behind is dropped with an
+// OverflowException naming the last sequence it got, from which it can subscribe again.
+public class ChangeFeed implements Flow.Publisher<List<ChangeEvent>> {
+    public static final int DEFAULT_RETAINED = 1 << 16;
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    public static final int DEFAULT_MAX_BATCH = 256;
+
+    public static final class OverflowException extends IllegalStateException {
+        private final long lastDelivered;
+
+        OverflowException(long lastDelivered, String message) {
+            super(message);
+            this.lastDelivered = lastDelivered;
+        }
+
+        // Subscribe again after this sequence to continue without a gap, if it is still retained.
+        public long getLastDelivered() {
+            return lastDelivered;
+        }
+    }
+
+    private final ChangeEvent[] ring;
+    private final int mask;
+    private volatile long nextSequence = 1;
+    private volatile boolean closed;
+    private final List<FeedSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ExecutorService delivery;
+
+    public ChangeFeed() {
+        this(DEFAULT_RETAINED);
+    }
+
+    // Keeps at least the last retained events for subscribers that resume.
+    public ChangeFeed(int retained) {
+        if (retained < 1 || retained > 1 << 30) {
+            throw new IllegalArgumentException("Retained events must be between 1 and " + (1 << 30) + ".");
+        }
+        int capacity = Integer.highestOneBit(retained);
+        capacity = capacity < retained ? capacity << 1 : capacity;
+        this.ring = new ChangeEvent[capacity];
+        this.mask = capacity - 1;
+        AtomicInteger threads = new AtomicInteger();
+        this.delivery = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "change-feed-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void publish(ChangeEvent.Type type, Object entity) {
+        long sequence;
+        synchronized (this) {
+            sequence = nextSequence;
+            ring[(int) sequence & mask] = new ChangeEvent(sequence, type, entity);
+            // Written after the slot, so a reader that sees the new sequence also sees the event
+            nextSequence = sequence + 1;
+        }
+        for (FeedSubscription subscription : subscriptions) {
+            subscription.published(sequence);
+        }
+    }
+
+    // Up to limit retained events after afterSequence, oldest first, for callers that poll
+    // instead of subscribing. Fails with an OverflowException once they are no longer retained.
+    public List<ChangeEvent> read(long afterSequence, int limit) {
+        if (afterSequence < 0) {
+            throw new IllegalArgumentException("Sequence numbers start at 1; read after 0 for every retained event.");
+        }
+        List<ChangeEvent> events = new ArrayList<>();
+        long end = Math.min(nextSequence, afterSequence + 1 + Math.max(0, limit));
+        for (long sequence = afterSequence + 1; sequence < end; sequence++) {
+            ChangeEvent event = ring[(int) sequence & mask];
+            if (event == null || event.getSequence() != sequence) {
+                throw new OverflowException(afterSequence, "Events after sequence " + afterSequence + " are no longer retained.");
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    // The sequence of the newest event, or 0 before the first.
+    public long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    // Delivers changes made from now on.
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<ChangeEvent>> subscriber) {
+        subscribe(subscriber, lastSequence(), DEFAULT_BUFFER_SIZE, DEFAULT_MAX_BATCH);
+    }
+
+    // Delivers the retained events after afterSequence, then new ones as they are published.
+    // Resuming from an event that is no longer retained fails with an OverflowException.
+    public void subscribe(Flow.Subscriber<? super List<ChangeEvent>> subscriber, long afterSequence,
+                          int bufferSize, int maxBatch) {
+        if (afterSequence < 0) {
+            throw new IllegalArgumentException("Sequence numbers start at 1; resume after 0 for every retained event.");
+        }
+        if (bufferSize < 1 || bufferSize > ring.length || maxBatch < 1) {
+            throw new IllegalArgumentException("Buffer size must be between 1 and " + ring.length
+                    + " and batches must hold at least one event.");
+        }
+        FeedSubscription subscription = new FeedSubscription(subscriber, afterSequence + 1, bufferSize, maxBatch);
+        subscriptions.add(subscription);
+        subscription.signal();
+    }
+
+    // Completes every subscriber once it has been sent the events published so far.
+    public void close() {
+        closed = true;
+        for (FeedSubscription subscription : subscriptions) {
+            subscription.signal();
+        }
+        delivery.shutdown();
+    }
+
+    private final class FeedSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super List<ChangeEvent>> subscriber;
+        private final int bufferSize;
+        private final int maxBatch;
+        private final AtomicLong demand = new AtomicLong();
+        // Signals that arrived while a drain was scheduled or running; see signal()
+        private final AtomicInteger pending = new AtomicInteger();
+        // The next sequence to deliver; only the drain moves it
+        private volatile long cursor;
+        private volatile boolean overflowed;
+        private volatile boolean cancelled;
+        private Throwable requestError;
+        private boolean started;
+
+        FeedSubscription(Flow.Subscriber<? super List<ChangeEvent>> subscriber, long cursor, int bufferSize, int maxBatch) {
+            this.subscriber = subscriber;
+            this.cursor = cursor;
+            this.bufferSize = bufferSize;
+            this.maxBatch = maxBatch;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                requestError = new IllegalArgumentException("Requested " + n + " items; requests must be positive.");
+            } else {
+                demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        // Called by the publisher; costs a few reads unless there is something to deliver.
+        void published(long sequence) {
+            if (sequence - cursor >= bufferSize) {
+                overflowed = true;
+                signal();
+            } else if (demand.get() > 0) {
+                signal();
+            }
+        }
+
+        // At most one drain runs at a time; signals that arrive meanwhile make it loop again.
+        void signal() {
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    delivery.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // The feed has been closed and its last drains are done
+                    pending.set(0);
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!started) {
+                    started = true;
+                    subscriber.onSubscribe(this);
+                }
+                deliver();
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void deliver() {
+            if (cancelled) {
+                return;
+            }
+            if (requestError != null) {
+                fail(requestError);
+                return;
+            }
+            if (overflowed) {
+                fail(new OverflowException(cursor - 1, "Subscriber fell more than " + bufferSize
+                        + " events behind; resume after sequence " + (cursor - 1) + "."));
+                return;
+            }
+            long end = nextSequence;
+            if (cursor > end) {
+                fail(new IllegalArgumentException("Sequence " + (cursor - 1) + " has not been reached; the feed is at " + (end - 1) + "."));
+                return;
+            }
+            while (demand.get() > 0 && cursor < end && !cancelled) {
+                int count = (int) Math.min(maxBatch, end - cursor);
+                List<ChangeEvent> batch = new ArrayList<>(count);
+                for (long sequence = cursor; sequence < cursor + count; sequence++) {
+                    ChangeEvent event = ring[(int) sequence & mask];
+                    // An event already overwritten by a newer one is lost to this subscriber
+                    if (event == null || event.getSequence() != sequence) {
+                        fail(new OverflowException(cursor - 1, "Events after sequence " + (cursor - 1)
+                                + " are no longer retained; the subscriber fell too far behind."));
+                        return;
+                    }
+                    batch.add(event);
+                }
+                cursor += count;
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+                try {
+                    subscriber.onNext(batch);
+                } catch (RuntimeException e) {
+                    // A subscriber that throws is treated as having cancelled
+                    cancel();
+                    return;
+                }
+                end = nextSequence;
+            }
+            if (closed && cursor >= nextSequence && !cancelled) {
+                cancel();
+                subscriber.onComplete();
+            }
+        }
+
+        private void fail(Throwable error) {
+            cancel();
+            subscriber.onError(error);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,233 @@
+package hospital.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+// Bulk loader for legacy data. The file is streamed in chunks of BATCH_SIZE lines; each chunk
+// is parsed in parallel while the previous one is inserted, and every chunk reaches the
+// service as a single importBatch call. Bad rows are collected in the report and skipped.
+//
+// Row formats (blank lines and lines starting with '#' are ignored; an empty id lets the
+// service assign one, and appointments may refer to rows earlier in the same file; a patient's
+// age and diagnosis may be empty, and the contact info may be left off):
+//   patient,<id>,<name>,<age>,<diagnosis>[,<contactInfo>]
+//   doctor,<id>,<name>,<specialization>
+//   appointment,<patientId>,<doctorId>,<date>
+public class CsvImporter {
+    static final int PATIENT = 1;
+    static final int DOCTOR = 2;
+    static final int APPOINTMENT = 3;
+    private static final int BATCH_SIZE = 10_000;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    static final class Row {
+        long line;
+        int type;
+        int id;
+        String name;
+        String detail;
+        int age;
+        String contactInfo;
+        int patientId;
+        int doctorId;
+        long time;
+        String error;
+    }
+
+    public static final class Report {
+        private static final int MAX_ERRORS = 1000;
+
+        int patients;
+        int doctors;
+        int appointments;
+        long rejected;
+        final List<String> errors = new ArrayList<>();
+
+        public int getPatients() { return patients; }
+        public int getDoctors() { return doctors; }
+        public int getAppointments() { return appointments; }
+        public long getRejected() { return rejected; }
+        // The first MAX_ERRORS rejections, each naming its line
+        public List<String> getErrors() { return errors; }
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add("Line " + line + ": " + message);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Imported " + patients + " patients, " + doctors + " doctors and " + appointments
+                    + " appointments. Rejected " + rejected + " rows.";
+        }
+    }
+
+    public static Report importFile(HospitalService service, Path file) throws IOException {
+        Report report = new Report();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            long firstLine = 1;
+            CompletableFuture<Row[]> pending = null;
+            List<String> lines;
+            while (!(lines = readChunk(reader)).isEmpty()) {
+                List<String> chunk = lines;
+                long chunkStart = firstLine;
+                CompletableFuture<Row[]> parsed = CompletableFuture.supplyAsync(() -> parse(chunk, chunkStart));
+                if (pending != null) {
+                    service.importBatch(pending.join(), report);
+                }
+                pending = parsed;
+                firstLine += chunk.size();
+            }
+            if (pending != null) {
+                service.importBatch(pending.join(), report);
+            }
+        }
+        return report;
+    }
+
+    private static List<String> readChunk(BufferedReader reader) throws IOException {
+        List<String> lines = new ArrayList<>(BATCH_SIZE);
+        String line;
+        while (lines.size() < BATCH_SIZE && (line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private static Row[] parse(List<String> lines, long firstLine) {
+        Row[] rows = new Row[lines.size()];
+        IntStream.range(0, rows.length).parallel()
+                .forEach(i -> rows[i] = parseRow(firstLine + i, lines.get(i)));
+        return rows;
+    }
+
+    // Returns null for lines that carry no data.
+    private static Row parseRow(long line, String text) {
+        if (line == 1 && !text.isEmpty() && text.charAt(0) == '\uFEFF') {
+            text = text.substring(1);
+        }
+        if (text.isBlank() || text.startsWith("#")) {
+            return null;
+        }
+        Row row = new Row();
+        row.line = line;
+        try {
+            List<String> fields = split(text);
+            String type = fields.get(0).toLowerCase(Locale.ROOT);
+            switch (type) {
+                case "type":
+                    return null;
+                case "patient":
+                    if (fields.size() != 5 && fields.size() != 6) {
+                        throw new IllegalArgumentException("Expected 5 or 6 fields for a patient, found " + fields.size() + ".");
+                    }
+                    row.type = PATIENT;
+                    row.id = parseId(fields.get(1), true);
+                    row.name = required(fields.get(2), "Name");
+                    row.age = fields.get(3).isEmpty() ? Patient.NO_AGE : parseNumber(fields.get(3), "age");
+                    row.detail = fields.get(4);
+                    row.contactInfo = fields.size() == 6 ? fields.get(5) : "";
+                    break;
+                case "doctor":
+                    expectFields(fields, 4, type);
+                    row.type = DOCTOR;
+                    row.id = parseId(fields.get(1), true);
+                    row.name = required(fields.get(2), "Name");
+                    row.detail = required(fields.get(3), "Specialization");
+                    break;
+                case "appointment":
+                    expectFields(fields, 4, type);
+                    row.type = APPOINTMENT;
+                    row.patientId = parseId(fields.get(1), false);
+                    row.doctorId = parseId(fields.get(2), false);
+                    row.time = AppointmentTime.parse(fields.get(3));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown record type '" + fields.get(0) + "'.");
+            }
+        } catch (IllegalArgumentException e) {
+            row.error = e.getMessage();
+        }
+        return row;
+    }
+
+    private static void expectFields(List<String> fields, int expected, String type) {
+        if (fields.size() != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " fields for a " + type + ", found " + fields.size() + ".");
+        }
+    }
+
+    private static String required(String value, String field) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(field + " cannot be empty.");
+        }
+        return value;
+    }
+
+    private static int parseId(String value, boolean optional) {
+        if (value.isEmpty() && optional) {
+            return 0;
+        }
+        int id = parseNumber(value, "ID");
+        if (id <= 0) {
+            throw new IllegalArgumentException("Invalid ID '" + value + "'.");
+        }
+        return id;
+    }
+
+    private static int parseNumber(String value, String field) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number < 0) {
+                throw new NumberFormatException();
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + " '" + value + "'.");
+        }
+    }
+
+    // Splits one CSV line. Fields may be quoted to contain commas; "" inside quotes is a quote.
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(5);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field.");
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package hospital.core;
+
+// The specialization is kept as a code in the dictionary of the service that owns the doctor.
+public class Doctor {
+    private int id;
+    private String name;
+    private int specializationCode;
+    private final StringDictionary specializations;
+
+    public Doctor(int id, String name, String specialization, StringDictionary specializations) {
+        this.id = id;
+        this.name = name;
+        this.specializationCode = specializations.encode(specialization);
+        this.specializations = specializations;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSpecialization() {
+        return specializations.decode(specializationCode);
+    }
+
+    public int getSpecializationCode() {
+        return specializationCode;
+    }
+
+    @Override
+    public String toString() {
+        return "Doctor [ID=" + id + ", Name=" + name + ", Specialization=" + getSpecialization() + "]";
+    }
+}
\ No newline at end of file
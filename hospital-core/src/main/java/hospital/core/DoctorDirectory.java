@@ -0,0 +1,97 @@
+package hospital.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+// Doctors grouped by specialization code, each group kept in order of booking load: the
+// number of appointments booked with the doctor, least first, ties by id. A booking moves
+// one doctor within its group in O(log n), so reading a group never sorts it, and routing a
+// patient to "any neurologist" walks the group from the front. Safe for concurrent use.
+public class DoctorDirectory {
+    public static final class Listing {
+        private final Doctor doctor;
+        private final int load;
+
+        Listing(Doctor doctor, int load) {
+            this.doctor = doctor;
+            this.load = load;
+        }
+
+        public Doctor getDoctor() { return doctor; }
+        public int getLoad() { return load; }
+    }
+
+    private static final class Entry {
+        final Doctor doctor;
+        int load;
+
+        Entry(Doctor doctor) {
+            this.doctor = doctor;
+        }
+    }
+
+    private static final Comparator<Entry> BY_LOAD =
+            Comparator.comparingInt((Entry entry) -> entry.load).thenComparingInt(entry -> entry.doctor.getId());
+
+    private final Map<Integer, TreeSet<Entry>> bySpecialization = new HashMap<>();
+    private final Map<Integer, Entry> byDoctor = new HashMap<>();
+
+    public synchronized void addDoctor(Doctor doctor) {
+        if (byDoctor.containsKey(doctor.getId())) {
+            return;
+        }
+        Entry entry = new Entry(doctor);
+        byDoctor.put(doctor.getId(), entry);
+        bySpecialization.computeIfAbsent(doctor.getSpecializationCode(), k -> new TreeSet<>(BY_LOAD)).add(entry);
+    }
+
+    public synchronized void addBooking(int doctorId) {
+        Entry entry = byDoctor.get(doctorId);
+        if (entry == null) {
+            return;
+        }
+        // The entry has to leave the set before its sort key changes
+        TreeSet<Entry> group = bySpecialization.get(entry.doctor.getSpecializationCode());
+        group.remove(entry);
+        entry.load++;
+        group.add(entry);
+    }
+
+    public synchronized int loadOf(int doctorId) {
+        Entry entry = byDoctor.get(doctorId);
+        return entry == null ? 0 : entry.load;
+    }
+
+    // Up to limit doctors of the specialization with their loads, least loaded first.
+    public synchronized List<Listing> list(int specializationCode, int limit) {
+        List<Listing> listings = new ArrayList<>();
+        TreeSet<Entry> group = bySpecialization.get(specializationCode);
+        if (group != null) {
+            for (Entry entry : group) {
+                if (listings.size() == limit) {
+                    break;
+                }
+                listings.add(new Listing(entry.doctor, entry.load));
+            }
+        }
+        return listings;
+    }
+
+    // The least loaded doctor of the specialization that accept takes, or null.
+    public synchronized Doctor leastLoaded(int specializationCode, Predicate<Doctor> accept) {
+        TreeSet<Entry> group = bySpecialization.get(specializationCode);
+        if (group != null) {
+            for (Entry entry : group) {
+                if (accept.test(entry.doctor)) {
+                    return entry.doctor;
+                }
+            }
+        }
+        return null;
+    }
+}
\ No newline at end of file
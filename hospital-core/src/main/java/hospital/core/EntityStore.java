@@ -0,0 +1,166 @@
+package hospital.core;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+// Writers must be serialized by the caller; readers take no lock. An entry and its table slot
+// are written before size, so a reader that reads size first sees every entry below it.
+// Arrays and tables that grow are replaced, never reused.
+public class EntityStore<T> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    // open-addressed id -> entry position table; a slot holds position + 1, 0 marks an empty slot
+    private static final class Table {
+        final int[] keys;
+        final int[] slots;
+        final int mask;
+
+        Table(int capacity) {
+            this.keys = new int[capacity];
+            this.slots = new int[capacity];
+            this.mask = capacity - 1;
+        }
+    }
+
+    private final ToIntFunction<T> idOf;
+    private volatile Object[] entries;
+    private volatile int size;
+    private volatile Table table;
+
+    public EntityStore(ToIntFunction<T> idOf) {
+        this.idOf = idOf;
+        this.entries = new Object[INITIAL_CAPACITY];
+        this.table = new Table(INITIAL_CAPACITY * 2);
+    }
+
+    public void add(T entity) {
+        int id = idOf.applyAsInt(entity);
+        if (indexOf(id) >= 0) {
+            throw new IllegalArgumentException("Duplicate ID " + id + ".");
+        }
+        int n = size;
+        Object[] current = entries;
+        if (n == current.length) {
+            current = Arrays.copyOf(current, n * 2);
+            entries = current;
+            rehash(table.keys.length * 2);
+        }
+        current[n] = entity;
+        insert(table, id, n + 1);
+        size = n + 1;
+    }
+
+    // Grows the store once so that it can hold capacity entries without resizing.
+    public void ensureCapacity(int capacity) {
+        if (capacity > entries.length) {
+            int length = Integer.highestOneBit(capacity - 1) << 1;
+            entries = Arrays.copyOf(entries, length);
+            rehash(length * 2);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int id) {
+        int pos = indexOf(id);
+        return pos < 0 ? null : (T) entries[pos];
+    }
+
+    public boolean contains(int id) {
+        return indexOf(id) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getAt(int position) {
+        int n = size;
+        if (position < 0 || position >= n) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of range.");
+        }
+        return (T) entries[position];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<T> toList() {
+        int n = size;
+        Object[] current = entries;
+        List<T> copy = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            copy.add((T) current[i]);
+        }
+        return copy;
+    }
+
+    // Read-only view of the entries present right now, without copying. Entries are never
+    // moved within an array, so the view stays valid while the store grows.
+    public List<T> snapshot() {
+        int n = size;
+        Object[] current = entries;
+        return new AbstractList<T>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public T get(int index) {
+                if (index < 0 || index >= n) {
+                    throw new IndexOutOfBoundsException("Index " + index + " out of range.");
+                }
+                return (T) current[index];
+            }
+
+            @Override
+            public int size() {
+                return n;
+            }
+        };
+    }
+
+    // A reader may meet a slot an add is still filling in; positions at or past the size it
+    // read are skipped, and the entry found is checked against the id.
+    private int indexOf(int id) {
+        int n = size;
+        Table t = table;
+        int i = hash(id) & t.mask;
+        int slot;
+        while ((slot = t.slots[i]) != 0) {
+            if (t.keys[i] == id && slot <= n) {
+                @SuppressWarnings("unchecked")
+                T entry = (T) entries[slot - 1];
+                if (idOf.applyAsInt(entry) == id) {
+                    return slot - 1;
+                }
+            }
+            i = (i + 1) & t.mask;
+        }
+        return -1;
+    }
+
+    private static void insert(Table t, int id, int slot) {
+        int i = hash(id) & t.mask;
+        while (t.slots[i] != 0) {
+            i = (i + 1) & t.mask;
+        }
+        t.keys[i] = id;
+        t.slots[i] = slot;
+    }
+
+    // The new table is filled before it is published.
+    private void rehash(int capacity) {
+        Table old = table;
+        Table grown = new Table(capacity);
+        for (int i = 0; i < old.slots.length; i++) {
+            if (old.slots[i] != 0) {
+                insert(grown, old.keys[i], old.slots[i]);
+            }
+        }
+        table = grown;
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,148 @@
+package hospital.core;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+// Streams patients, doctors or appointments to a file as CSV (the format CsvImporter reads)
+// or as JSON lines. Rows are pulled from the service one page at a time and written through
+// a buffered channel writer, so memory use does not grow with the number of rows.
+public class Exporter {
+    public enum Format { CSV, JSON_LINES }
+
+    private static final int PAGE_SIZE = 1024;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    // .json and .jsonl files get JSON lines, everything else CSV.
+    public static Format formatFor(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".jsonl") || name.endsWith(".json") ? Format.JSON_LINES : Format.CSV;
+    }
+
+    public static long exportPatients(HospitalService service, Path file) throws IOException {
+        Format format = formatFor(file);
+        try (Writer out = open(file)) {
+            Patient[] page = new Patient[PAGE_SIZE];
+            long written = 0;
+            int count;
+            while ((count = service.readPatients((int) written, page)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    Patient p = page[i];
+                    if (format == Format.CSV) {
+                        out.write("patient," + p.getId() + "," + csv(p.getName()) + "," + (p.hasAge() ? p.getAge() : "")
+                                + "," + csv(p.getDiagnosis()) + "," + csv(p.getContactInfo()) + "\n");
+                    } else {
+                        out.write(toJson(p) + "\n");
+                    }
+                }
+                written += count;
+            }
+            return written;
+        }
+    }
+
+    public static long exportDoctors(HospitalService service, Path file) throws IOException {
+        Format format = formatFor(file);
+        try (Writer out = open(file)) {
+            Doctor[] page = new Doctor[PAGE_SIZE];
+            long written = 0;
+            int count;
+            while ((count = service.readDoctors((int) written, page)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    Doctor d = page[i];
+                    if (format == Format.CSV) {
+                        out.write("doctor," + d.getId() + "," + csv(d.getName()) + "," + csv(d.getSpecialization()) + "\n");
+                    } else {
+                        out.write(toJson(d) + "\n");
+                    }
+                }
+                written += count;
+            }
+            return written;
+        }
+    }
+
+    // doctorId 0 exports every doctor; a null date leaves that end of the range open.
+    public static long exportAppointments(HospitalService service, Path file, int doctorId,
+                                          String fromDate, String toDate) throws IOException {
+        Format format = formatFor(file);
+        HospitalService.AppointmentCursor cursor = service.appointmentCursor(doctorId, fromDate, toDate);
+        try (Writer out = open(file)) {
+            Appointment[] page = new Appointment[PAGE_SIZE];
+            long written = 0;
+            int count;
+            while ((count = cursor.next(page)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    Appointment a = page[i];
+                    if (format == Format.CSV) {
+                        out.write("appointment," + a.getPatient().getId() + "," + a.getDoctor().getId() + "," + csv(a.getDate()) + "\n");
+                    } else {
+                        out.write(toJson(a) + "\n");
+                    }
+                }
+                written += count;
+            }
+            return written;
+        }
+    }
+
+    private static Writer open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    public static String toJson(Patient p) {
+        return "{\"id\":" + p.getId() + ",\"name\":" + json(p.getName())
+                + ",\"age\":" + (p.hasAge() ? String.valueOf(p.getAge()) : "null")
+                + ",\"diagnosis\":" + (p.hasDiagnosis() ? json(p.getDiagnosis()) : "null")
+                + ",\"contactInfo\":" + json(p.getContactInfo()) + "}";
+    }
+
+    public static String toJson(Doctor d) {
+        return "{\"id\":" + d.getId() + ",\"name\":" + json(d.getName())
+                + ",\"specialization\":" + json(d.getSpecialization()) + "}";
+    }
+
+    public static String toJson(Appointment a) {
+        return "{\"id\":" + a.getId() + ",\"patientId\":" + a.getPatient().getId()
+                + ",\"patientName\":" + json(a.getPatient().getName())
+                + ",\"doctorId\":" + a.getDoctor().getId()
+                + ",\"doctorName\":" + json(a.getDoctor().getName())
+                + ",\"date\":" + json(a.getDate()) + "}";
+    }
+
+    public static String json(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,1113 @@
+package hospital.core;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// The patients, doctors and appointments of the hospital with everything kept over them:
+// lookup and search indexes, the doctor directory, free-slot search, the change feed, and
+// persistence through a write-ahead log and snapshots. Every front end runs on this class,
+// and all of its methods are safe to call from any thread. Patient and doctor writes hold the
+// service lock; bookings hold only the lock stripe of their doctor, and appointment reads take
+// no lock at all.
+public class HospitalService implements Closeable {
+    // When a change made through a service with a data directory counts as saved.
+    public enum Durability {
+        // Every call that changes data returns once its log record is on disk. Callers on
+        // other threads share an fsync, so the cost is one disk flush per batch of concurrent
+        // writes, but a single writer waits out a flush on each call.
+        SYNC,
+        // Calls return as soon as the record is queued; the log reaches the disk a moment
+        // later, or on close. A crash can lose the last few changes a caller was told about.
+        ASYNC
+    }
+
+    private static final byte ADD_PATIENT = 1;
+    private static final byte ADD_DOCTOR = 2;
+    private static final byte SCHEDULE_APPOINTMENT = 3;
+    private static final long SNAPSHOT_EVERY_RECORDS = 100_000;
+    private static final long SNAPSHOT_INTERVAL_MINUTES = 10;
+    private static final int BOOKING_LOCK_STRIPES = 64;
+    // Every appointment takes this long, and one doctor's appointments may not overlap
+    public static final Duration APPOINTMENT_LENGTH = Duration.ofMinutes(30);
+    private static final long APPOINTMENT_MINUTES = APPOINTMENT_LENGTH.toMinutes();
+    // Working hours and slot length for free-slot searches; see AvailabilityIndex
+    private static final String DEFAULT_WORKING_HOURS = "09:00-17:00";
+    private static final int DEFAULT_SLOT_MINUTES = 30;
+
+    // Written under the service lock, read without it
+    private final EntityStore<Patient> patients;
+    private final EntityStore<Doctor> doctors;
+    private AppendOnlyList<Appointment> appointments;
+    // Appointment indexes are concurrent structures, so the query methods read them without
+    // the service lock while bookings are added
+    private ConcurrentMap<Integer, AppendOnlyList<Appointment>> appointmentsByDoctor;
+    private ConcurrentMap<Integer, AppendOnlyList<Appointment>> appointmentsByPatient;
+    private ConcurrentMap<Integer, ConcurrentNavigableMap<Long, Appointment>> doctorSchedules;
+    private ConcurrentNavigableMap<Long, AppendOnlyList<Appointment>> appointmentsByTime;
+
+    // Bookings for the same doctor serialize on one stripe; other doctors proceed in parallel
+    private ReentrantLock[] bookingLocks;
+
+    // Bumped after every stored change, so views can skip work when nothing moved
+    private AtomicLong version;
+
+    // Each service encodes its own values, so its codes and gauges cover only its own data
+    private final StringDictionary specializations = new StringDictionary();
+    private final StringDictionary diagnoses = new StringDictionary();
+
+    private IdAllocator patientIds;
+    private IdAllocator doctorIds;
+    private IdAllocator appointmentIds;
+
+    // null when the service runs in memory only
+    private WriteAheadLog log;
+    private Durability durability = Durability.SYNC;
+    private Path snapshotFile;
+    private volatile long snapshotSequence;
+    private ScheduledExecutorService snapshotter;
+    private AtomicBoolean snapshotPending;
+
+    private Metrics metrics;
+    private Metrics.Timer addPatientTimer;
+    private Metrics.Timer findPatientTimer;
+    private Metrics.Timer listPatientsTimer;
+    private Metrics.Timer addDoctorTimer;
+    private Metrics.Timer findDoctorTimer;
+    private Metrics.Timer listDoctorsTimer;
+    private Metrics.Timer scheduleAppointmentTimer;
+    private Metrics.Timer listAppointmentsTimer;
+    private Metrics.Timer importBatchTimer;
+    private Metrics.Timer searchPatientsTimer;
+    private Metrics.Timer searchDoctorsTimer;
+    private Metrics.Timer doctorDirectoryTimer;
+    private Metrics.Timer findFreeSlotsTimer;
+
+    private SearchIndex<Patient> patientSearch;
+    private SearchIndex<Doctor> doctorSearch;
+    private DoctorDirectory directory;
+    private AvailabilityIndex availability;
+    private ChangeFeed changes;
+
+    // A service that lives in memory only.
+    public HospitalService() {
+        this((WriteAheadLog) null);
+    }
+
+    // Restores the newest snapshot in dataDir, replays the log records written after it and
+    // appends every further change to the log. Snapshots are refreshed in the background.
+    public static HospitalService open(Path dataDir) throws IOException {
+        return open(dataDir, Durability.SYNC);
+    }
+
+    public static HospitalService open(Path dataDir, Durability durability) throws IOException {
+        WriteAheadLog log = new WriteAheadLog(dataDir.resolve("hospital.wal"));
+        HospitalService service = new HospitalService(log);
+        service.durability = durability;
+        service.snapshotFile = dataDir.resolve("hospital.snapshot");
+        try {
+            SnapshotFile.Reader snapshot = SnapshotFile.open(service.snapshotFile);
+            if (snapshot != null) {
+                service.restoreSnapshot(snapshot);
+            }
+            log.replay(service.snapshotSequence, service::applyLogRecord);
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        service.startSnapshots();
+        return service;
+    }
+
+    private HospitalService(WriteAheadLog log) {
+        this.log = log;
+        this.patients = new EntityStore<>(Patient::getId);
+        this.doctors = new EntityStore<>(Doctor::getId);
+        this.appointments = new AppendOnlyList<>();
+        this.appointmentsByDoctor = new ConcurrentHashMap<>();
+        this.appointmentsByPatient = new ConcurrentHashMap<>();
+        this.doctorSchedules = new ConcurrentHashMap<>();
+        this.appointmentsByTime = new ConcurrentSkipListMap<>();
+        this.bookingLocks = new ReentrantLock[BOOKING_LOCK_STRIPES];
+        for (int i = 0; i < bookingLocks.length; i++) {
+            bookingLocks[i] = new ReentrantLock();
+        }
+        this.version = new AtomicLong();
+        this.patientIds = new IdAllocator();
+        this.doctorIds = new IdAllocator();
+        this.appointmentIds = new IdAllocator();
+        this.snapshotPending = new AtomicBoolean();
+        this.metrics = new Metrics();
+        this.addPatientTimer = metrics.timer("addPatient");
+        this.findPatientTimer = metrics.timer("findPatientById");
+        this.listPatientsTimer = metrics.timer("getAllPatients");
+        this.addDoctorTimer = metrics.timer("addDoctor");
+        this.findDoctorTimer = metrics.timer("findDoctorById");
+        this.listDoctorsTimer = metrics.timer("getAllDoctors");
+        this.scheduleAppointmentTimer = metrics.timer("scheduleAppointment");
+        this.listAppointmentsTimer = metrics.timer("getAllAppointments");
+        this.importBatchTimer = metrics.timer("importBatch");
+        this.searchPatientsTimer = metrics.timer("searchPatients");
+        this.searchDoctorsTimer = metrics.timer("searchDoctors");
+        this.doctorDirectoryTimer = metrics.timer("getDoctorDirectory");
+        this.findFreeSlotsTimer = metrics.timer("findFreeSlots");
+        this.patientSearch = new SearchIndex<>(patient -> patient.getName() + " " + patient.getDiagnosis());
+        this.doctorSearch = new SearchIndex<>(doctor -> doctor.getName() + " " + doctor.getSpecialization());
+        this.directory = new DoctorDirectory();
+        this.availability = createAvailability();
+        this.changes = new ChangeFeed();
+        metrics.gauge("patients", this::getPatientCount);
+        metrics.gauge("doctors", this::getDoctorCount);
+        metrics.gauge("appointments", this::getAppointmentCount);
+        metrics.gauge("diagnosisCodes", diagnoses::size);
+        metrics.gauge("diagnosisBytesSaved", diagnoses::estimatedBytesSaved);
+        metrics.gauge("specializationCodes", specializations::size);
+        metrics.gauge("specializationBytesSaved", specializations::estimatedBytesSaved);
+        metrics.gauge("changeSubscribers", changes::subscriberCount);
+        metrics.startDumpIfConfigured();
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // New patients, doctors and appointments from this run, imported ones included; what the
+    // service restored at startup is not replayed. See ChangeFeed.
+    public ChangeFeed getChanges() {
+        return changes;
+    }
+
+    // Working hours come from -Dhospital.workingHours=HH:mm-HH:mm and the slot length from
+    // -Dhospital.slotMinutes; settings that do not parse fall back to the defaults.
+    private static AvailabilityIndex createAvailability() {
+        String hours = System.getProperty("hospital.workingHours", DEFAULT_WORKING_HOURS);
+        String slotMinutes = System.getProperty("hospital.slotMinutes", String.valueOf(DEFAULT_SLOT_MINUTES));
+        try {
+            String[] range = hours.split("-");
+            if (range.length != 2) {
+                throw new IllegalArgumentException("Use HH:mm-HH:mm.");
+            }
+            return new AvailabilityIndex(LocalTime.parse(range[0].trim()), LocalTime.parse(range[1].trim()),
+                    Integer.parseInt(slotMinutes.trim()), APPOINTMENT_MINUTES);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            System.err.println("Ignoring working hours " + hours + " with " + slotMinutes + " minute slots: "
+                    + e.getMessage() + " Using " + DEFAULT_WORKING_HOURS + ".");
+            return new AvailabilityIndex(LocalTime.of(9, 0), LocalTime.of(17, 0), DEFAULT_SLOT_MINUTES, APPOINTMENT_MINUTES);
+        }
+    }
+
+    // Gives a new, empty store a few records to start from.
+    public synchronized void addSampleDataIfEmpty() {
+        if (patients.size() > 0 || doctors.size() > 0) {
+            return;
+        }
+        addDoctor("Dr. Smith", "Cardiology");
+        addDoctor("Dr. Jones", "Neurology");
+        addPatient("Alice", 30, "Heart Palpitations");
+        addPatient("Bob", 45, "Migraines");
+    }
+
+    public Patient addPatient(String name, int age, String diagnosis) {
+        return addPatient(name, age, diagnosis, "");
+    }
+
+    // A patient with no age or diagnosis on record.
+    public Patient addPatient(String name, String contactInfo) {
+        return addPatient(name, Patient.NO_AGE, "", contactInfo);
+    }
+
+    public Patient addPatient(String name, int age, String diagnosis, String contactInfo) {
+        long start = System.nanoTime();
+        Patient newPatient;
+        long sequence;
+        synchronized (this) {
+            newPatient = new Patient(patientIds.nextId(), name, age, diagnosis, contactInfo, diagnoses);
+            storePatient(newPatient);
+            sequence = logPatient(newPatient);
+        }
+        awaitDurable(sequence);
+        addPatientTimer.record(start);
+        return newPatient;
+    }
+
+    public Patient findPatientById(int id) {
+        long start = System.nanoTime();
+        Patient patient = patients.get(id);
+        findPatientTimer.record(start);
+        return patient;
+    }
+
+    // The getAll methods return read-only snapshots, taken in constant time, that stay valid
+    // and unchanged while other threads keep adding.
+    public List<Patient> getAllPatients() {
+        long start = System.nanoTime();
+        List<Patient> list = patients.snapshot();
+        listPatientsTimer.record(start);
+        return list;
+    }
+
+    public int getPatientCount() {
+        return patients.size();
+    }
+
+    public Doctor addDoctor(String name, String specialization) {
+        long start = System.nanoTime();
+        Doctor newDoctor;
+        long sequence;
+        synchronized (this) {
+            newDoctor = new Doctor(doctorIds.nextId(), name, specialization, specializations);
+            storeDoctor(newDoctor);
+            sequence = logDoctor(newDoctor);
+        }
+        awaitDurable(sequence);
+        addDoctorTimer.record(start);
+        return newDoctor;
+    }
+
+    public Doctor findDoctorById(int id) {
+        long start = System.nanoTime();
+        Doctor doctor = doctors.get(id);
+        findDoctorTimer.record(start);
+        return doctor;
+    }
+
+    public List<Doctor> getAllDoctors() {
+        long start = System.nanoTime();
+        List<Doctor> list = doctors.snapshot();
+        listDoctorsTimer.record(start);
+        return list;
+    }
+
+    public int getDoctorCount() {
+        return doctors.size();
+    }
+
+    // Searches names and diagnoses by word, prefix or close spelling; see SearchIndex.
+    public List<Patient> searchPatients(String query, int limit) {
+        long start = System.nanoTime();
+        List<Patient> results = patientSearch.search(query, limit);
+        searchPatientsTimer.record(start);
+        return results;
+    }
+
+    public List<Doctor> searchDoctors(String query, int limit) {
+        long start = System.nanoTime();
+        List<Doctor> results = doctorSearch.search(query, limit);
+        searchDoctorsTimer.record(start);
+        return results;
+    }
+
+    // Specializations are looked up in the directory, least loaded doctor first.
+    public List<Doctor> getDoctorsBySpecialization(String specialization) {
+        List<Doctor> matches = new ArrayList<>();
+        for (DoctorDirectory.Listing listing : getDoctorDirectory(specialization, Integer.MAX_VALUE)) {
+            matches.add(listing.getDoctor());
+        }
+        return matches;
+    }
+
+    // Up to limit doctors of the specialization, each with the number of appointments booked
+    // with them, least loaded first.
+    public List<DoctorDirectory.Listing> getDoctorDirectory(String specialization, int limit) {
+        long start = System.nanoTime();
+        int code = specializations.codeOf(specialization);
+        List<DoctorDirectory.Listing> listings = code < 0 ? new ArrayList<>() : directory.list(code, limit);
+        doctorDirectoryTimer.record(start);
+        return listings;
+    }
+
+    public int getDoctorLoad(int doctorId) {
+        return directory.loadOf(doctorId);
+    }
+
+    public boolean hasSpecialization(String specialization) {
+        return specializations.codeOf(specialization) >= 0;
+    }
+
+    // Every specialization any doctor has had, in the order they first appeared.
+    public List<String> getSpecializations() {
+        int count = specializations.size();
+        List<String> names = new ArrayList<>(count);
+        for (int code = 0; code < count; code++) {
+            names.add(specializations.decode(code));
+        }
+        return names;
+    }
+
+    // The earliest count slots at or after the date (null for now) in which some doctor of the
+    // specialization is free, in time order. A slot can still be taken before it is booked;
+    // scheduleAppointment checks again.
+    public List<AvailabilityIndex.Slot> findFreeSlots(String specialization, String after, int count) {
+        return findFreeSlots(specialization, after == null ? null : AppointmentTime.parseDateTime(after), count);
+    }
+
+    public List<AvailabilityIndex.Slot> findFreeSlots(String specialization, LocalDateTime after, int count) {
+        long start = System.nanoTime();
+        long from = AppointmentTime.of(after == null ? LocalDateTime.now() : after);
+        int code = specializations.codeOf(specialization);
+        List<AvailabilityIndex.Slot> slots = code < 0
+                ? Collections.emptyList() : availability.findFree(code, from, count);
+        findFreeSlotsTimer.record(start);
+        return slots;
+    }
+
+    // The equality filter compares dictionary codes, so no string is touched per patient.
+    public List<Patient> getPatientsByDiagnosis(String diagnosis) {
+        int code = diagnoses.codeOf(diagnosis);
+        List<Patient> matches = new ArrayList<>();
+        List<Patient> all = code < 0 ? Collections.emptyList() : patients.snapshot();
+        for (Patient patient : all) {
+            if (patient.getDiagnosisCode() == code) {
+                matches.add(patient);
+            }
+        }
+        return matches;
+    }
+
+    public Appointment scheduleAppointment(int patientId, int doctorId, String date) {
+        long start = System.nanoTime();
+        Appointment appointment = null;
+        try {
+            long time = AppointmentTime.parse(date);
+            appointment = bookAppointment(requirePatient(patientId), requireDoctor(doctorId), time);
+            return appointment;
+        } finally {
+            recordBooking(start, appointment);
+        }
+    }
+
+    // Seconds are dropped; appointments start on a whole minute.
+    public Appointment scheduleAppointment(int patientId, int doctorId, LocalDateTime dateTime) {
+        long start = System.nanoTime();
+        Appointment appointment = null;
+        try {
+            long time = minuteOf(dateTime);
+            appointment = bookAppointment(requirePatient(patientId), requireDoctor(doctorId), time);
+            return appointment;
+        } finally {
+            recordBooking(start, appointment);
+        }
+    }
+
+    // Books with the least loaded doctor of the specialization who is free at the date, so
+    // equivalent doctors share the work evenly.
+    public Appointment scheduleWithLeastLoadedDoctor(int patientId, String specialization, String date) {
+        long start = System.nanoTime();
+        Appointment appointment = null;
+        try {
+            appointment = bookLeastLoaded(requirePatient(patientId), specialization, AppointmentTime.parse(date));
+            return appointment;
+        } finally {
+            recordBooking(start, appointment);
+        }
+    }
+
+    public Appointment scheduleWithLeastLoadedDoctor(int patientId, String specialization, LocalDateTime dateTime) {
+        long start = System.nanoTime();
+        Appointment appointment = null;
+        try {
+            appointment = bookLeastLoaded(requirePatient(patientId), specialization, minuteOf(dateTime));
+            return appointment;
+        } finally {
+            recordBooking(start, appointment);
+        }
+    }
+
+    private static long minuteOf(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            throw new IllegalArgumentException("Date cannot be empty.");
+        }
+        return AppointmentTime.of(dateTime);
+    }
+
+    private void recordBooking(long start, Appointment appointment) {
+        if (appointment == null) {
+            scheduleAppointmentTimer.recordFailure(start);
+        } else {
+            scheduleAppointmentTimer.record(start);
+        }
+    }
+
+    private Appointment bookLeastLoaded(Patient patient, String specialization, long time) {
+        while (true) {
+            Doctor doctor = leastLoadedDoctorAt(specialization, time);
+            try {
+                return bookAppointment(patient, doctor, time);
+            } catch (IllegalArgumentException e) {
+                // Another booking took the slot after it was checked; the next pass skips this doctor
+            }
+        }
+    }
+
+    private Doctor leastLoadedDoctorAt(String specialization, long time) {
+        int code = specializations.codeOf(specialization);
+        if (code < 0) {
+            throw new IllegalArgumentException("No doctor specializes in " + specialization + ".");
+        }
+        Doctor doctor = directory.leastLoaded(code, candidate -> {
+            NavigableMap<Long, Appointment> schedule = doctorSchedules.get(candidate.getId());
+            return schedule == null || findConflict(schedule, time) == null;
+        });
+        if (doctor == null) {
+            throw new IllegalArgumentException("Every " + specialization + " doctor already has an appointment on "
+                    + AppointmentTime.format(time) + ".");
+        }
+        return doctor;
+    }
+
+    // Patients and doctors are looked up without a lock; the booking then takes only its
+    // doctor's stripe.
+
+    private Patient requirePatient(int patientId) {
+        Patient patient = patients.get(patientId);
+        if (patient == null) {
+            throw new IllegalArgumentException("Patient with ID " + patientId + " not found.");
+        }
+        return patient;
+    }
+
+    private Doctor requireDoctor(int doctorId) {
+        Doctor doctor = doctors.get(doctorId);
+        if (doctor == null) {
+            throw new IllegalArgumentException("Doctor with ID " + doctorId + " not found.");
+        }
+        return doctor;
+    }
+
+    private ReentrantLock bookingLockFor(int doctorId) {
+        return bookingLocks[Math.floorMod(doctorId, BOOKING_LOCK_STRIPES)];
+    }
+
+    // The doctor's stripe makes the overlap check and the booking one atomic step. The
+    // appointment is stored before it is logged, so a snapshot marked in between holds it and
+    // the replayed record is skipped as a duplicate. The wait for the disk comes after the
+    // stripe is released.
+    private Appointment bookAppointment(Patient patient, Doctor doctor, long time) {
+        ConcurrentNavigableMap<Long, Appointment> schedule =
+                doctorSchedules.computeIfAbsent(doctor.getId(), k -> new ConcurrentSkipListMap<>());
+        ReentrantLock lock = bookingLockFor(doctor.getId());
+        Appointment newAppointment;
+        long sequence;
+        lock.lock();
+        try {
+            Appointment clash = findConflict(schedule, time);
+            if (clash != null) {
+                throw new IllegalArgumentException(doctor.getName() + " already has an appointment on " + AppointmentTime.format(clash.getTime()) + ".");
+            }
+            newAppointment = new Appointment(appointmentIds.nextId(), patient, doctor, time);
+            schedule.put(time, newAppointment);
+            appointments.add(newAppointment);
+            indexAppointment(newAppointment);
+            // Under the lock, so one doctor's bookings reach subscribers and the log in booking order
+            sequence = logAppointment(newAppointment);
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(sequence);
+        return newAppointment;
+    }
+
+    // Applies one parsed chunk of a CsvImporter run under a single lock acquisition; the
+    // id stores are grown once for the whole chunk instead of doubling along the way. Each
+    // appointment also takes its doctor's stripe, as bookings do.
+    void importBatch(CsvImporter.Row[] rows, CsvImporter.Report report) {
+        long start = System.nanoTime();
+        // One wait for the whole chunk, once the locks are released
+        awaitDurable(applyBatch(rows, report));
+        importBatchTimer.record(start);
+    }
+
+    // Returns the sequence of the last log record written, or 0 if none was.
+    private synchronized long applyBatch(CsvImporter.Row[] rows, CsvImporter.Report report) {
+        long sequence = 0;
+        int newPatients = 0;
+        int newDoctors = 0;
+        for (CsvImporter.Row row : rows) {
+            if (row != null && row.error == null) {
+                newPatients += row.type == CsvImporter.PATIENT ? 1 : 0;
+                newDoctors += row.type == CsvImporter.DOCTOR ? 1 : 0;
+            }
+        }
+        patients.ensureCapacity(patients.size() + newPatients);
+        doctors.ensureCapacity(doctors.size() + newDoctors);
+
+        List<Appointment> added = new ArrayList<>();
+        for (CsvImporter.Row row : rows) {
+            if (row == null) {
+                continue;
+            }
+            if (row.error != null) {
+                report.reject(row.line, row.error);
+                continue;
+            }
+            switch (row.type) {
+                case CsvImporter.PATIENT: {
+                    int id = importedId(row.id, patientIds, patients);
+                    if (id < 0) {
+                        report.reject(row.line, "Duplicate patient ID " + row.id + ".");
+                        break;
+                    }
+                    Patient patient = new Patient(id, row.name, row.age, row.detail, row.contactInfo, diagnoses);
+                    storePatient(patient);
+                    sequence = logPatient(patient);
+                    report.patients++;
+                    break;
+                }
+                case CsvImporter.DOCTOR: {
+                    int id = importedId(row.id, doctorIds, doctors);
+                    if (id < 0) {
+                        report.reject(row.line, "Duplicate doctor ID " + row.id + ".");
+                        break;
+                    }
+                    Doctor doctor = new Doctor(id, row.name, row.detail, specializations);
+                    storeDoctor(doctor);
+                    sequence = logDoctor(doctor);
+                    report.doctors++;
+                    break;
+                }
+                default: {
+                    Patient patient = patients.get(row.patientId);
+                    Doctor doctor = doctors.get(row.doctorId);
+                    if (patient == null) {
+                        report.reject(row.line, "Patient with ID " + row.patientId + " not found.");
+                        break;
+                    }
+                    if (doctor == null) {
+                        report.reject(row.line, "Doctor with ID " + row.doctorId + " not found.");
+                        break;
+                    }
+                    ConcurrentNavigableMap<Long, Appointment> schedule =
+                            doctorSchedules.computeIfAbsent(doctor.getId(), k -> new ConcurrentSkipListMap<>());
+                    ReentrantLock lock = bookingLockFor(doctor.getId());
+                    lock.lock();
+                    try {
+                        Appointment clash = findConflict(schedule, row.time);
+                        if (clash != null) {
+                            report.reject(row.line, doctor.getName() + " already has an appointment on "
+                                    + AppointmentTime.format(clash.getTime()) + ".");
+                            break;
+                        }
+                        Appointment appointment = new Appointment(appointmentIds.nextId(), patient, doctor, row.time);
+                        schedule.put(row.time, appointment);
+                        added.add(appointment);
+                        sequence = logAppointment(appointment);
+                        report.appointments++;
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+        }
+        appointments.addAll(added);
+        for (Appointment appointment : added) {
+            indexAppointment(appointment);
+        }
+        return sequence;
+    }
+
+    // Keeps an explicit id unless it is taken (then returns -1); allocates one otherwise.
+    private static int importedId(int requested, IdAllocator ids, EntityStore<?> store) {
+        if (requested == 0) {
+            int id;
+            do {
+                id = ids.nextId();
+            } while (store.contains(id));
+            return id;
+        }
+        if (store.contains(requested)) {
+            return -1;
+        }
+        if (requested > ids.highWaterMark()) {
+            ids.resumeFrom(requested);
+        }
+        return requested;
+    }
+
+    // Appointments have a fixed length, so only the neighbours on either side can overlap.
+    private static Appointment findConflict(NavigableMap<Long, Appointment> schedule, long time) {
+        Map.Entry<Long, Appointment> before = schedule.floorEntry(time);
+        if (before != null && before.getKey() + APPOINTMENT_MINUTES > time) {
+            return before.getValue();
+        }
+        Map.Entry<Long, Appointment> after = schedule.higherEntry(time);
+        if (after != null && after.getKey() < time + APPOINTMENT_MINUTES) {
+            return after.getValue();
+        }
+        return null;
+    }
+
+    private void storePatient(Patient patient) {
+        patients.add(patient);
+        patientSearch.add(patient);
+        version.incrementAndGet();
+    }
+
+    private void storeDoctor(Doctor doctor) {
+        doctors.add(doctor);
+        doctorSearch.add(doctor);
+        directory.addDoctor(doctor);
+        availability.addDoctor(doctor);
+        version.incrementAndGet();
+    }
+
+    // Every new record passes through one of these, so subscribers hear of it here as well.
+    // Each returns the sequence of the log record, or 0 without a log.
+    private long logPatient(Patient patient) {
+        changes.publish(ChangeEvent.Type.PATIENT_ADDED, patient);
+        long sequence = 0;
+        if (log != null) {
+            sequence = log.append(out -> {
+                out.writeByte(ADD_PATIENT);
+                out.writeInt(patient.getId());
+                out.writeUTF(patient.getName());
+                out.writeInt(patient.getAge());
+                out.writeUTF(patient.getDiagnosis());
+                out.writeUTF(patient.getContactInfo());
+            });
+            maybeSnapshot();
+        }
+        return sequence;
+    }
+
+    private long logDoctor(Doctor doctor) {
+        changes.publish(ChangeEvent.Type.DOCTOR_ADDED, doctor);
+        long sequence = 0;
+        if (log != null) {
+            sequence = log.append(out -> {
+                out.writeByte(ADD_DOCTOR);
+                out.writeInt(doctor.getId());
+                out.writeUTF(doctor.getName());
+                out.writeUTF(doctor.getSpecialization());
+            });
+            maybeSnapshot();
+        }
+        return sequence;
+    }
+
+    private long logAppointment(Appointment appointment) {
+        changes.publish(ChangeEvent.Type.APPOINTMENT_BOOKED, appointment);
+        long sequence = 0;
+        if (log != null) {
+            sequence = log.append(out -> {
+                out.writeByte(SCHEDULE_APPOINTMENT);
+                out.writeInt(appointment.getId());
+                out.writeInt(appointment.getPatient().getId());
+                out.writeInt(appointment.getDoctor().getId());
+                out.writeLong(appointment.getTime());
+            });
+            maybeSnapshot();
+        }
+        return sequence;
+    }
+
+    private void awaitDurable(long sequence) {
+        if (log == null || durability == Durability.ASYNC || sequence <= 0) {
+            return;
+        }
+        try {
+            log.awaitDurable(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void applyLogRecord(long sequence, DataInputStream in) throws IOException {
+        if (sequence <= snapshotSequence) {
+            return;
+        }
+        byte type = in.readByte();
+        switch (type) {
+            case ADD_PATIENT: {
+                Patient patient = new Patient(in.readInt(), in.readUTF(), in.readInt(), in.readUTF(), in.readUTF(), diagnoses);
+                storePatient(patient);
+                patientIds.resumeFrom(patient.getId());
+                break;
+            }
+            case ADD_DOCTOR: {
+                Doctor doctor = new Doctor(in.readInt(), in.readUTF(), in.readUTF(), specializations);
+                storeDoctor(doctor);
+                doctorIds.resumeFrom(doctor.getId());
+                break;
+            }
+            case SCHEDULE_APPOINTMENT:
+                restoreAppointment(in.readInt(), in.readInt(), in.readInt(), in.readLong());
+                break;
+            default:
+                throw new IOException("Unknown log record type " + type + ".");
+        }
+    }
+
+    private void restoreAppointment(int id, int patientId, int doctorId, long time) throws IOException {
+        Patient patient = patients.get(patientId);
+        Doctor doctor = doctors.get(doctorId);
+        if (patient == null || doctor == null) {
+            throw new IOException("Appointment " + id + " refers to an unknown patient or doctor.");
+        }
+        appointmentIds.resumeFrom(id);
+        NavigableMap<Long, Appointment> schedule = doctorSchedules.computeIfAbsent(doctorId, k -> new ConcurrentSkipListMap<>());
+        Appointment existing = schedule.get(time);
+        if (existing != null && existing.getId() == id) {
+            // A booking logged just after a snapshot's mark may be in the snapshot as well
+            return;
+        }
+        Appointment appointment = new Appointment(id, patient, doctor, time);
+        schedule.put(time, appointment);
+        appointments.add(appointment);
+        indexAppointment(appointment);
+    }
+
+    private void restoreSnapshot(SnapshotFile.Reader in) throws IOException {
+        int maxId = 0;
+        for (int count = in.readInt(); count > 0; count--) {
+            Patient patient = new Patient(in.readInt(), in.readString(), in.readInt(), in.readString(), in.readString(), diagnoses);
+            storePatient(patient);
+            maxId = Math.max(maxId, patient.getId());
+        }
+        patientIds.resumeFrom(maxId);
+        maxId = 0;
+        for (int count = in.readInt(); count > 0; count--) {
+            Doctor doctor = new Doctor(in.readInt(), in.readString(), in.readString(), specializations);
+            storeDoctor(doctor);
+            maxId = Math.max(maxId, doctor.getId());
+        }
+        doctorIds.resumeFrom(maxId);
+        for (int count = in.readInt(); count > 0; count--) {
+            restoreAppointment(in.readInt(), in.readInt(), in.readInt(), in.readLong());
+        }
+        snapshotSequence = in.coveredSequence();
+    }
+
+    private void startSnapshots() {
+        snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "hospital-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotter.scheduleWithFixedDelay(() -> {
+            if (log.lastSequence() > snapshotSequence) {
+                requestSnapshot();
+            }
+        }, SNAPSHOT_INTERVAL_MINUTES, SNAPSHOT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    private void maybeSnapshot() {
+        if (snapshotter != null && log.lastSequence() - snapshotSequence >= SNAPSHOT_EVERY_RECORDS) {
+            requestSnapshot();
+        }
+    }
+
+    private void requestSnapshot() {
+        if (snapshotPending.compareAndSet(false, true)) {
+            snapshotter.execute(this::writeSnapshot);
+        }
+    }
+
+    // Copies the entity references under the lock, then serializes them without holding it.
+    // Package-private so tests can take a snapshot without waiting for the background one.
+    void writeSnapshot() {
+        try {
+            long sequence;
+            List<Patient> patientList;
+            List<Doctor> doctorList;
+            List<Appointment> appointmentList;
+            synchronized (this) {
+                sequence = log.mark();
+                patientList = patients.toList();
+                doctorList = doctors.toList();
+                appointmentList = appointments.snapshot();
+            }
+            SnapshotFile.write(snapshotFile, sequence, out -> {
+                out.writeInt(patientList.size());
+                for (Patient patient : patientList) {
+                    out.writeInt(patient.getId());
+                    SnapshotFile.writeString(out, patient.getName());
+                    out.writeInt(patient.getAge());
+                    SnapshotFile.writeString(out, patient.getDiagnosis());
+                    SnapshotFile.writeString(out, patient.getContactInfo());
+                }
+                out.writeInt(doctorList.size());
+                for (Doctor doctor : doctorList) {
+                    out.writeInt(doctor.getId());
+                    SnapshotFile.writeString(out, doctor.getName());
+                    SnapshotFile.writeString(out, doctor.getSpecialization());
+                }
+                out.writeInt(appointmentList.size());
+                for (Appointment appointment : appointmentList) {
+                    out.writeInt(appointment.getId());
+                    out.writeInt(appointment.getPatient().getId());
+                    out.writeInt(appointment.getDoctor().getId());
+                    out.writeLong(appointment.getTime());
+                }
+            });
+            snapshotSequence = sequence;
+            log.compact(sequence);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not write snapshot " + snapshotFile + ": " + e.getMessage());
+        } finally {
+            snapshotPending.set(false);
+        }
+    }
+
+    // A new list enters the index already holding its first appointment, so a reader never
+    // finds an empty one.
+    private static <K> void addToIndex(ConcurrentMap<K, AppendOnlyList<Appointment>> index, K key,
+                                       Appointment appointment) {
+        AppendOnlyList<Appointment> list = index.get(key);
+        if (list == null) {
+            AppendOnlyList<Appointment> first = new AppendOnlyList<>();
+            first.add(appointment);
+            list = index.putIfAbsent(key, first);
+            if (list == null) {
+                return;
+            }
+        }
+        list.add(appointment);
+    }
+
+    private void indexAppointment(Appointment appointment) {
+        long time = appointment.getTime();
+        addToIndex(appointmentsByDoctor, appointment.getDoctor().getId(), appointment);
+        addToIndex(appointmentsByPatient, appointment.getPatient().getId(), appointment);
+        addToIndex(appointmentsByTime, time, appointment);
+        directory.addBooking(appointment.getDoctor().getId());
+        availability.book(appointment.getDoctor().getId(), time, APPOINTMENT_MINUTES);
+        version.incrementAndGet();
+    }
+
+    // Read the version before reading data: a change that races with the read then shows up
+    // as a newer version on the next check instead of being missed.
+    public long getVersion() {
+        return version.get();
+    }
+
+    public List<Appointment> getAllAppointments() {
+        long start = System.nanoTime();
+        List<Appointment> list = appointments.snapshot();
+        listAppointmentsTimer.record(start);
+        return list;
+    }
+
+    public int getAppointmentCount() {
+        return appointments.size();
+    }
+
+    // The query methods below need no lock. Lists are read-only snapshots taken in constant
+    // time; the doctor schedule is a read-only view that shows later bookings as they are
+    // added, and the by-time maps are read-only copies of the range.
+
+    public List<Appointment> getAppointmentsForDoctor(int doctorId) {
+        return readOnly(appointmentsByDoctor.get(doctorId));
+    }
+
+    public List<Appointment> getAppointmentsForPatient(int patientId) {
+        return readOnly(appointmentsByPatient.get(patientId));
+    }
+
+    // The maps below are keyed by appointment time in epoch minutes. Dates are parsed as by
+    // scheduleAppointment; a bare date as the end of a range includes that whole day.
+
+    public NavigableMap<Long, List<Appointment>> getAppointmentsOn(String date) {
+        return getAppointmentsBetween(date, date);
+    }
+
+    public Appointment getDoctorAppointmentAt(int doctorId, String date) {
+        NavigableMap<Long, Appointment> schedule = doctorSchedules.get(doctorId);
+        return schedule == null ? null : schedule.get(AppointmentTime.parse(date));
+    }
+
+    // Whether an appointment of the doctor overlaps one starting at the date.
+    public boolean isSlotTaken(int doctorId, String date) {
+        NavigableMap<Long, Appointment> schedule = doctorSchedules.get(doctorId);
+        return schedule != null && findConflict(schedule, AppointmentTime.parse(date)) != null;
+    }
+
+    public NavigableMap<Long, List<Appointment>> getAppointmentsBetween(String fromDate, String toDate) {
+        NavigableMap<Long, List<Appointment>> copy = new TreeMap<>();
+        for (Map.Entry<Long, AppendOnlyList<Appointment>> entry : appointmentsByTime.subMap(
+                AppointmentTime.parse(fromDate), true, AppointmentTime.parseRangeEnd(toDate), true).entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return Collections.unmodifiableNavigableMap(copy);
+    }
+
+    public NavigableMap<Long, Appointment> getDoctorScheduleBetween(int doctorId, String fromDate, String toDate) {
+        NavigableMap<Long, Appointment> schedule = doctorSchedules.get(doctorId);
+        if (schedule == null) {
+            return Collections.emptyNavigableMap();
+        }
+        return Collections.unmodifiableNavigableMap(schedule.subMap(
+                AppointmentTime.parse(fromDate), true, AppointmentTime.parseRangeEnd(toDate), true));
+    }
+
+    private static List<Appointment> readOnly(AppendOnlyList<Appointment> list) {
+        return list == null ? Collections.emptyList() : list.snapshot();
+    }
+
+    // Exports read the stores page by page instead of copying them, without the lock. Nothing
+    // is ever removed, so a position stays valid between pages.
+
+    public int readPatients(int from, Patient[] page) {
+        return readPage(patients, from, page);
+    }
+
+    public int readDoctors(int from, Doctor[] page) {
+        return readPage(doctors, from, page);
+    }
+
+    private static <T> int readPage(EntityStore<T> store, int from, T[] page) {
+        int count = Math.max(0, Math.min(page.length, store.size() - from));
+        for (int i = 0; i < count; i++) {
+            page[i] = store.getAt(from + i);
+        }
+        return count;
+    }
+
+    // doctorId 0 means every doctor; a null date leaves that end of the range open. Dates are
+    // checked here, before any page is read.
+    public AppointmentCursor appointmentCursor(int doctorId, String fromDate, String toDate) {
+        return new AppointmentCursor(doctorId,
+                fromDate == null ? Long.MIN_VALUE : AppointmentTime.parse(fromDate),
+                toDate == null ? Long.MAX_VALUE : AppointmentTime.parseRangeEnd(toDate));
+    }
+
+    // Continues where the cursor that handed out token stopped; the filters must be the same.
+    public AppointmentCursor appointmentCursor(int doctorId, String fromDate, String toDate, String token) {
+        AppointmentCursor cursor = appointmentCursor(doctorId, fromDate, toDate);
+        try {
+            int split = token.indexOf(':');
+            if (split < 0) {
+                cursor.position = Integer.parseInt(token);
+            } else {
+                cursor.lastTime = Long.parseLong(token.substring(0, split));
+                cursor.position = Integer.parseInt(token.substring(split + 1));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page token '" + token + "'.");
+        }
+        if (cursor.position < 0) {
+            throw new IllegalArgumentException("Invalid page token '" + token + "'.");
+        }
+        return cursor;
+    }
+
+    public final class AppointmentCursor {
+        private final int doctorId;
+        private final long from;
+        private final long to;
+        private Long lastTime;
+        private int position;
+
+        private AppointmentCursor(int doctorId, long from, long to) {
+            this.doctorId = doctorId;
+            this.from = from;
+            this.to = to;
+        }
+
+        // Where the cursor stands, for resuming it in a later request.
+        public String token() {
+            return lastTime == null ? Integer.toString(position) : lastTime + ":" + position;
+        }
+
+        // Fills page with the next matching appointments and returns how many were written.
+        public int next(Appointment[] page) {
+            if (doctorId != 0) {
+                return nextForDoctor(page);
+            }
+            if (from != Long.MIN_VALUE || to != Long.MAX_VALUE) {
+                return nextByTime(page);
+            }
+            int count = Math.max(0, Math.min(page.length, appointments.size() - position));
+            for (int i = 0; i < count; i++) {
+                page[i] = appointments.get(position + i);
+            }
+            position += count;
+            return count;
+        }
+
+        private int nextForDoctor(Appointment[] page) {
+            NavigableMap<Long, Appointment> schedule = doctorSchedules.get(doctorId);
+            if (schedule == null) {
+                return 0;
+            }
+            schedule = inRange(schedule);
+            if (lastTime != null) {
+                schedule = schedule.tailMap(lastTime, false);
+            }
+            int count = 0;
+            for (Map.Entry<Long, Appointment> entry : schedule.entrySet()) {
+                if (count == page.length) {
+                    break;
+                }
+                page[count++] = entry.getValue();
+                lastTime = entry.getKey();
+            }
+            return count;
+        }
+
+        private int nextByTime(Appointment[] page) {
+            NavigableMap<Long, AppendOnlyList<Appointment>> times = inRange(appointmentsByTime);
+            if (lastTime != null) {
+                times = times.tailMap(lastTime, true);
+            }
+            int count = 0;
+            for (Map.Entry<Long, AppendOnlyList<Appointment>> entry : times.entrySet()) {
+                if (count == page.length) {
+                    break;
+                }
+                List<Appointment> list = entry.getValue();
+                int start = entry.getKey().equals(lastTime) ? position : 0;
+                int take = Math.min(page.length - count, list.size() - start);
+                for (int i = 0; i < take; i++) {
+                    page[count++] = list.get(start + i);
+                }
+                lastTime = entry.getKey();
+                position = start + take;
+            }
+            return count;
+        }
+
+        private <V> NavigableMap<Long, V> inRange(NavigableMap<Long, V> map) {
+            return map.subMap(from, true, to, true);
+        }
+    }
+
+    // Waits for pending log writes to reach the disk and releases the log file.
+    @Override
+    public void close() throws IOException {
+        metrics.stopDump();
+        changes.close();
+        if (snapshotter != null) {
+            snapshotter.shutdown();
+            try {
+                snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (log != null) {
+            log.close();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package hospital.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hands out unique ids to any number of threads. An uncontended caller takes ids one at a
+// time so numbering stays dense; a thread that loses a CAS race switches to reserving
+// progressively larger private blocks, so busy writers stop competing for the shared counter.
+// resumeFrom must not run while other threads take ids from the same allocator: an id from a
+// block reserved just before it could fall below the new mark. The service resumes patient and
+// doctor ids under the lock their allocations hold too, and appointment ids only during
+// replay, before the service is shared.
+public class IdAllocator {
+    private static final int MAX_BLOCK_SIZE = 1024;
+
+    private static final class Block {
+        int next;
+        int limit;
+        int size = 1;
+        int epoch;
+    }
+
+    private final AtomicInteger nextUnreserved = new AtomicInteger(1);
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+    private final AtomicInteger epoch = new AtomicInteger();
+
+    public int nextId() {
+        Block block = blocks.get();
+        if (block.next == block.limit || block.epoch != epoch.get()) {
+            reserve(block);
+        }
+        return block.next++;
+    }
+
+    private void reserve(Block block) {
+        block.epoch = epoch.get();
+        int start = nextUnreserved.get();
+        if (!nextUnreserved.compareAndSet(start, start + block.size)) {
+            block.size = Math.min(block.size * 2, MAX_BLOCK_SIZE);
+            start = nextUnreserved.getAndAdd(block.size);
+        }
+        if (start <= 0 || start + block.size <= 0) {
+            throw new IllegalStateException("ID space exhausted.");
+        }
+        block.next = start;
+        block.limit = start + block.size;
+    }
+
+    // Continue numbering after ids restored from persistent storage; blocks reserved before the call are dropped.
+    public void resumeFrom(int highWaterMark) {
+        nextUnreserved.accumulateAndGet(highWaterMark + 1, Math::max);
+        epoch.incrementAndGet();
+    }
+
+    public int highWaterMark() {
+        return nextUnreserved.get() - 1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package hospital.core;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Operation timers and gauges for one service. Timers are registered once and kept in fields
+// by the service, so timing a call costs two nanoTime reads and a few atomic adds.
+// Reports are available as text or JSON, on demand or appended to a file periodically.
+public class Metrics {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    public static final class Timer {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder failures = new LongAdder();
+
+        public void record(long startNanos) {
+            latency.record(System.nanoTime() - startNanos);
+        }
+
+        public void recordFailure(long startNanos) {
+            failures.increment();
+            record(startNanos);
+        }
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Timer> timers = new LinkedHashMap<>();
+    private final Map<String, LongSupplier> gauges = new LinkedHashMap<>();
+    private ScheduledExecutorService dumper;
+
+    public Metrics() {
+        gauge("heapUsedBytes", () -> Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory());
+        gauge("heapMaxBytes", () -> Runtime.getRuntime().maxMemory());
+    }
+
+    public synchronized Timer timer(String name) {
+        return timers.computeIfAbsent(name, k -> new Timer());
+    }
+
+    public synchronized void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public synchronized String toText() {
+        double uptime = uptimeSeconds();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Uptime: %.0f s%n%n", uptime));
+        sb.append(String.format("%-22s %10s %9s %10s %10s %10s %10s %10s %10s %10s%n", "Operation", "Count", "Failures",
+                "Ops/s", "Mean us", "p50 us", "p90 us", "p99 us", "p99.9 us", "Max us"));
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            LatencyHistogram latency = entry.getValue().latency;
+            sb.append(String.format("%-22s %10d %9d %10.1f %10.1f", entry.getKey(), latency.count(),
+                    entry.getValue().failures.sum(), latency.count() / uptime, latency.meanNanos() / 1000));
+            for (double percentile : PERCENTILES) {
+                sb.append(String.format(" %10.1f", latency.percentileNanos(percentile) / 1000.0));
+            }
+            sb.append(String.format(" %10.1f%n", latency.maxNanos() / 1000.0));
+        }
+        sb.append(String.format("%n"));
+        for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            sb.append(String.format("%-22s %14d%n", entry.getKey(), entry.getValue().getAsLong()));
+        }
+        return sb.toString();
+    }
+
+    public synchronized String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"time\":\"").append(Instant.now()).append("\",\"uptimeSeconds\":")
+                .append(String.format(Locale.ROOT, "%.3f", uptimeSeconds())).append(",\"operations\":{");
+        String separator = "";
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            LatencyHistogram latency = entry.getValue().latency;
+            sb.append(separator).append('"').append(entry.getKey()).append("\":{\"count\":").append(latency.count())
+                    .append(",\"failures\":").append(entry.getValue().failures.sum())
+                    .append(",\"meanNanos\":").append(Math.round(latency.meanNanos()))
+                    .append(",\"p50Nanos\":").append(latency.percentileNanos(50))
+                    .append(",\"p90Nanos\":").append(latency.percentileNanos(90))
+                    .append(",\"p99Nanos\":").append(latency.percentileNanos(99))
+                    .append(",\"p999Nanos\":").append(latency.percentileNanos(99.9))
+                    .append(",\"maxNanos\":").append(latency.maxNanos()).append('}');
+            separator = ",";
+        }
+        sb.append("},\"gauges\":{");
+        separator = "";
+        for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            sb.append(separator).append('"').append(entry.getKey()).append("\":").append(entry.getValue().getAsLong());
+            separator = ",";
+        }
+        return sb.append("}}").toString();
+    }
+
+    // Starts appending a report to the file named by the hospital.metricsFile property every
+    // hospital.metricsIntervalSeconds (default 60): one JSON object per line when the name ends
+    // in .json or .jsonl, the text report otherwise. Does nothing if the property is not set.
+    public synchronized void startDumpIfConfigured() {
+        String fileName = System.getProperty("hospital.metricsFile");
+        if (fileName == null || dumper != null) {
+            return;
+        }
+        Path file = Paths.get(fileName);
+        boolean json = fileName.endsWith(".json") || fileName.endsWith(".jsonl");
+        long interval = Long.getLong("hospital.metricsIntervalSeconds", 60);
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> {
+            String report = json ? toJson() + "\n" : "--- " + Instant.now() + " ---\n" + toText() + "\n";
+            try {
+                Files.write(file, report.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("Could not write metrics to " + file + ": " + e.getMessage());
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stopDump() {
+        if (dumper != null) {
+            dumper.shutdown();
+            dumper = null;
+        }
+    }
+
+    private double uptimeSeconds() {
+        return Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package hospital.core;
+
+// Age and diagnosis are optional; the doctor appointment system records neither. The
+// diagnosis is kept as a code in the dictionary of the service that owns the patient.
+public class Patient {
+    public static final int NO_AGE = -1;
+    private static final int NO_DIAGNOSIS = -1;
+    private int id;
+    private String name;
+    private int age;
+    private int diagnosisCode;
+    private String contactInfo;
+    private final StringDictionary diagnoses;
+
+    // A negative age or an empty diagnosis is not recorded.
+    public Patient(int id, String name, int age, String diagnosis, String contactInfo, StringDictionary diagnoses) {
+        this.id = id;
+        this.name = name;
+        this.age = age < 0 ? NO_AGE : age;
+        this.diagnosisCode = diagnosis.isEmpty() ? NO_DIAGNOSIS : diagnoses.encode(diagnosis);
+        this.contactInfo = contactInfo;
+        this.diagnoses = diagnoses;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean hasAge() {
+        return age != NO_AGE;
+    }
+
+    // NO_AGE when not recorded
+    public int getAge() {
+        return age;
+    }
+
+    public boolean hasDiagnosis() {
+        return diagnosisCode != NO_DIAGNOSIS;
+    }
+
+    // Empty when not recorded
+    public String getDiagnosis() {
+        return hasDiagnosis() ? diagnoses.decode(diagnosisCode) : "";
+    }
+
+    // -1 when not recorded
+    public int getDiagnosisCode() {
+        return diagnosisCode;
+    }
+
+    public String getContactInfo() {
+        return contactInfo;
+    }
+
+    @Override
+    public String toString() {
+        return "Patient [ID=" + id + ", Name=" + name + (hasAge() ? ", Age=" + age : "")
+                + (hasDiagnosis() ? ", Diagnosis=" + getDiagnosis() : "")
+                + (contactInfo.isEmpty() ? "" : ", Contact=" + contactInfo) + "]";
+    }
+}
\ No newline at end of file
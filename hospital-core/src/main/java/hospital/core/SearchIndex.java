@@ -0,0 +1,290 @@
+package hospital.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+// Word index for search boxes. Every word of an entity's text points to the entities that
+// contain it. A query word matches index words that equal it, start with it, or are within
+// one or two edits of it; fuzzy candidates come from a trigram table over the index words,
+// so only words sharing enough trigrams with the query are compared. Results list exact
+// matches first, then prefix matches, then fuzzy ones, and stop at the requested limit.
+// With several query words, every word has to match; the rarest one drives the scan.
+public class SearchIndex<T> {
+    // A query word may expand to at most this many prefix matches
+    private static final int MAX_PREFIX_WORDS = 2048;
+
+    private static final class Word {
+        final String text;
+        int[] postings = new int[2];
+        int size;
+
+        Word(String text) {
+            this.text = text;
+        }
+
+        void add(int position) {
+            if (size > 0 && postings[size - 1] == position) {
+                return;
+            }
+            if (size == postings.length) {
+                postings = Arrays.copyOf(postings, size * 2);
+            }
+            postings[size++] = position;
+        }
+    }
+
+    private final Function<T, String> textOf;
+    private final List<T> entries = new ArrayList<>();
+    private final TreeMap<String, Word> words = new TreeMap<>();
+    private final Map<Long, List<Word>> trigrams = new HashMap<>();
+
+    public SearchIndex(Function<T, String> textOf) {
+        this.textOf = textOf;
+    }
+
+    public synchronized void add(T entity) {
+        int position = entries.size();
+        entries.add(entity);
+        for (String token : tokenize(textOf.apply(entity))) {
+            Word word = words.get(token);
+            if (word == null) {
+                word = new Word(token);
+                words.put(token, word);
+                for (long trigram : trigramsOf(token)) {
+                    trigrams.computeIfAbsent(trigram, k -> new ArrayList<>()).add(word);
+                }
+            }
+            word.add(position);
+        }
+    }
+
+    public synchronized List<T> search(String query, int limit) {
+        List<String> queryWords = tokenize(query);
+        List<T> results = new ArrayList<>();
+        if (queryWords.isEmpty() || limit <= 0) {
+            return results;
+        }
+        Set<Integer> seen = new HashSet<>();
+        if (queryWords.size() == 1) {
+            String queryWord = queryWords.get(0);
+            Word exact = words.get(queryWord);
+            if (exact != null) {
+                collect(Collections.singletonList(exact), null, seen, results, limit);
+            }
+            // Prefix words are read from the sorted map only until limit results are in, so a
+            // short prefix never expands to every word it starts. Fuzzy matching is the
+            // expensive part, so it only runs if exact and prefix matches fall short.
+            if (collect(prefixesOf(queryWord), null, seen, results, limit) < limit) {
+                collect(fuzzyMatches(queryWord), null, seen, results, limit);
+            }
+            return results;
+        }
+
+        List<List<Word>> exactLists = new ArrayList<>();
+        List<List<Word>> allLists = new ArrayList<>();
+        int driver = -1;
+        long driverPostings = Long.MAX_VALUE;
+        for (String queryWord : queryWords) {
+            List<Word> exact = matches(queryWord);
+            List<Word> all = new ArrayList<>(exact);
+            all.addAll(fuzzyMatches(queryWord));
+            if (all.isEmpty()) {
+                return results;
+            }
+            long postings = 0;
+            for (Word word : all) {
+                postings += word.size;
+            }
+            if (postings < driverPostings) {
+                driverPostings = postings;
+                driver = allLists.size();
+            }
+            exactLists.add(exact);
+            allLists.add(all);
+        }
+        // Entities matching every word exactly or by prefix come before those needing a fuzzy match
+        if (collect(exactLists.get(driver), filters(exactLists, driver), seen, results, limit) < limit) {
+            collect(allLists.get(driver), filters(allLists, driver), seen, results, limit);
+        }
+        return results;
+    }
+
+    private static List<Set<String>> filters(List<List<Word>> matchLists, int driver) {
+        List<Set<String>> filters = new ArrayList<>();
+        for (int i = 0; i < matchLists.size(); i++) {
+            if (i != driver) {
+                Set<String> texts = new HashSet<>();
+                for (Word word : matchLists.get(i)) {
+                    texts.add(word.text);
+                }
+                filters.add(texts);
+            }
+        }
+        return filters;
+    }
+
+    // Adds the entities of each word in order until limit results are collected. With filters,
+    // an entity only counts if each filter contains at least one of its words. Only entities
+    // that count are marked seen, so one the exact pass filtered out gets its fuzzy chance.
+    private int collect(Iterable<Word> matched, List<Set<String>> filters, Set<Integer> seen, List<T> results, int limit) {
+        for (Word word : matched) {
+            for (int i = 0; i < word.size && results.size() < limit; i++) {
+                int position = word.postings[i];
+                if (!seen.contains(position) && (filters == null || matchesAll(entries.get(position), filters))) {
+                    seen.add(position);
+                    results.add(entries.get(position));
+                }
+            }
+            if (results.size() >= limit) {
+                break;
+            }
+        }
+        return results.size();
+    }
+
+    private boolean matchesAll(T entity, List<Set<String>> filters) {
+        List<String> tokens = tokenize(textOf.apply(entity));
+        for (Set<String> filter : filters) {
+            boolean found = false;
+            for (String token : tokens) {
+                if (filter.contains(token)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The exact match, if any, followed by up to MAX_PREFIX_WORDS words that start with queryWord.
+    private List<Word> matches(String queryWord) {
+        List<Word> matched = new ArrayList<>();
+        Word exact = words.get(queryWord);
+        if (exact != null) {
+            matched.add(exact);
+        }
+        for (Word word : prefixesOf(queryWord)) {
+            if (matched.size() >= MAX_PREFIX_WORDS) {
+                break;
+            }
+            matched.add(word);
+        }
+        return matched;
+    }
+
+    // Words that start with queryWord and are longer, in order, as a live view of the index.
+    private Collection<Word> prefixesOf(String queryWord) {
+        return words.subMap(queryWord, false, queryWord + Character.MAX_VALUE, false).values();
+    }
+
+    // Words within maxEdits(queryWord) edits that are not already an exact or prefix match,
+    // closest first.
+    private List<Word> fuzzyMatches(String queryWord) {
+        int maxEdits = maxEdits(queryWord);
+        List<Word> matched = new ArrayList<>();
+        if (maxEdits == 0) {
+            return matched;
+        }
+        // One edit changes at most three trigrams, so closer words share at least this many
+        long[] queryTrigrams = trigramsOf(queryWord);
+        int required = Math.max(1, queryTrigrams.length - 3 * maxEdits);
+        Map<Word, Integer> shared = new HashMap<>();
+        for (long trigram : queryTrigrams) {
+            List<Word> candidates = trigrams.get(trigram);
+            if (candidates == null) {
+                continue;
+            }
+            for (Word word : candidates) {
+                if (Math.abs(word.text.length() - queryWord.length()) <= maxEdits) {
+                    shared.merge(word, 1, Integer::sum);
+                }
+            }
+        }
+        List<List<Word>> byDistance = new ArrayList<>();
+        for (int i = 0; i <= maxEdits; i++) {
+            byDistance.add(new ArrayList<>());
+        }
+        for (Map.Entry<Word, Integer> entry : shared.entrySet()) {
+            String text = entry.getKey().text;
+            if (entry.getValue() >= required && !text.startsWith(queryWord)) {
+                int distance = editDistance(queryWord, text, maxEdits);
+                if (distance <= maxEdits) {
+                    byDistance.get(distance).add(entry.getKey());
+                }
+            }
+        }
+        for (List<Word> group : byDistance) {
+            matched.addAll(group);
+        }
+        return matched;
+    }
+
+    private static int maxEdits(String word) {
+        if (word.length() < 3) {
+            return 0;
+        }
+        return word.length() < 6 ? 1 : 2;
+    }
+
+    // Levenshtein distance, or max + 1 as soon as it is certain to exceed max.
+    static int editDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    private static long[] trigramsOf(String word) {
+        String padded = "$" + word + "$";
+        long[] result = new long[padded.length() - 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        return result;
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>(4);
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package hospital.core;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// Compacted binary image of the whole data set together with the last log sequence it
+// covers. It is written to a temporary file and renamed into place, so a crash never leaves
+// a half-written snapshot behind, and it is read back through a read-only memory mapping.
+public class SnapshotFile {
+    private static final int MAGIC = 0x48534E50;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    static void write(Path file, long coveredSequence, Writer body) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            BufferedOutputStream buffered = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, crc));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(coveredSequence);
+            body.write(out);
+            out.flush();
+            new DataOutputStream(buffered).writeInt((int) crc.getValue());
+            buffered.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // Returns null when there is no snapshot yet.
+    static Reader open(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + 4 || size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + file + " has an invalid size.");
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().limit((int) size - 4));
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getInt((int) size - 4) != (int) crc.getValue()) {
+                throw new IOException("Snapshot " + file + " is corrupt.");
+            }
+            return new Reader(buffer.limit((int) size - 4).position(HEADER_BYTES), buffer.getLong(8));
+        }
+    }
+
+    static final class Reader {
+        private final ByteBuffer buffer;
+        private final long coveredSequence;
+
+        private Reader(ByteBuffer buffer, long coveredSequence) {
+            this.buffer = buffer;
+            this.coveredSequence = coveredSequence;
+        }
+
+        long coveredSequence() {
+            return coveredSequence;
+        }
+
+        int readInt() {
+            return buffer.getInt();
+        }
+
+        long readLong() {
+            return buffer.getLong();
+        }
+
+        String readString() {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package hospital.core;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Maps a small set of often repeated strings, such as specializations, to int codes so that
+// each distinct value is kept on the heap once however many entities carry it. Codes are
+// handed out in order and never reused; decoding is a plain array read.
+public class StringDictionary {
+    // Rough heap cost of a String holding Latin-1 text, excluding the characters themselves,
+    // and of one entry in the code map
+    private static final int STRING_OVERHEAD_BYTES = 40;
+    private static final int MAP_ENTRY_BYTES = 48;
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private int size;
+    private long distinctChars;
+    private final LongAdder encoded = new LongAdder();
+    private final LongAdder encodedChars = new LongAdder();
+
+    public int encode(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = register(value);
+        }
+        encoded.increment();
+        encodedChars.add(value.length());
+        return code;
+    }
+
+    public String decode(int code) {
+        return values[code];
+    }
+
+    // Returns the code of value, or -1 if no entity has ever used it.
+    public int codeOf(String value) {
+        Integer code = codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Heap saved compared with every encoded field holding its own copy of the string, as it
+    // would for values read from a form, a console or a file.
+    public synchronized long estimatedBytesSaved() {
+        long copies = encoded.sum() * STRING_OVERHEAD_BYTES + encodedChars.sum();
+        long shared = size * (long) (STRING_OVERHEAD_BYTES + MAP_ENTRY_BYTES) + distinctChars;
+        return copies - shared;
+    }
+
+    private synchronized int register(String value) {
+        Integer existing = codes.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        String[] table = values;
+        if (size == table.length) {
+            table = Arrays.copyOf(table, size * 2);
+        }
+        table[size] = value;
+        values = table;
+        distinctChars += value.length();
+        // Published after the table entry, so any thread that sees the code can decode it
+        codes.put(value, size);
+        return size++;
+    }
+}
\ No newline at end of file
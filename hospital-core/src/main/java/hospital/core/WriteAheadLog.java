@@ -0,0 +1,355 @@
+package hospital.core;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+// Append-only, checksummed event log. Appends only enqueue the record and return its
+// sequence; a background writer drains everything queued so far, writes it in one go and
+// fsyncs once per batch. A caller that needs its record on disk waits for its sequence with
+// awaitDurable, and callers waiting at the same time share one fsync (group commit). Frame
+// layout: length, crc32, sequence, payload. Once a snapshot covers a prefix of the log,
+// compact() drops that prefix.
+public class WriteAheadLog implements Closeable {
+    private static final int HEADER_BYTES = 16;
+    private static final int MAX_BATCH = 4096;
+
+    interface RecordHandler {
+        void apply(long sequence, DataInputStream payload) throws IOException;
+    }
+
+    interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static final int RECORD = 0;
+    private static final int MARK = 1;
+    private static final int COMPACT = 2;
+    private static final int CLOSE = 3;
+
+    private static final class Entry {
+        final int kind;
+        final long sequence;
+        final byte[] payload;
+
+        Entry(int kind, long sequence, byte[] payload) {
+            this.kind = kind;
+            this.sequence = sequence;
+            this.payload = payload;
+        }
+    }
+
+    private final Path file;
+    private final FileChannel lockChannel;
+    private final FileLock fileLock;
+    private FileChannel channel;
+    private final LinkedBlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Object durableMonitor = new Object();
+    private Thread writer;
+    private long nextSequence = 1;
+    private volatile long durableSequence;
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    // Written by the writer thread only: file offset just past the last marked sequence
+    private long markedSequence = -1;
+    private long markedPosition;
+
+    public WriteAheadLog(Path file) throws IOException {
+        this.file = file;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        // Compaction replaces the log file, so exclusivity is held on a separate lock file
+        this.lockChannel = FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.fileLock = lockChannel.tryLock();
+        if (fileLock == null) {
+            lockChannel.close();
+            throw new IOException(file + " is in use by another process.");
+        }
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            fileLock.release();
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    // Feeds every intact record to the handler, cuts off a torn tail left by a crash and
+    // then starts the writer. Must be called once, before the first append. coveredSequence
+    // is the last sequence a snapshot already holds: compaction may have emptied the log, and
+    // new records must still be numbered past it.
+    public synchronized void replay(long coveredSequence, RecordHandler handler) throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("Log already replayed.");
+        }
+        long validEnd = 0;
+        long lastSequence = 0;
+        long fileSize = channel.size();
+        channel.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        CRC32 crc = new CRC32();
+        while (true) {
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException e) {
+                break;
+            }
+            try {
+                int checksum = in.readInt();
+                long sequence = in.readLong();
+                if (length < 0 || length > fileSize) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                if (checksum(crc, sequence, payload) != checksum) {
+                    break;
+                }
+                handler.apply(sequence, new DataInputStream(new ByteArrayInputStream(payload)));
+                lastSequence = Math.max(lastSequence, sequence);
+                validEnd += HEADER_BYTES + length;
+            } catch (EOFException e) {
+                break;
+            }
+        }
+        if (validEnd < fileSize) {
+            channel.truncate(validEnd);
+        }
+        channel.position(validEnd);
+        lastSequence = Math.max(lastSequence, coveredSequence);
+        nextSequence = lastSequence + 1;
+        durableSequence = lastSequence;
+        writer = new Thread(this::writeLoop, "wal-writer-" + file.getFileName());
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeQuietly, "wal-shutdown-" + file.getFileName()));
+    }
+
+    public long append(RecordWriter record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            record.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return append(bytes.toByteArray());
+    }
+
+    private long append(byte[] payload) {
+        if (failure != null) {
+            throw new UncheckedIOException("Write-ahead log " + file + " failed.", failure);
+        }
+        synchronized (this) {
+            if (writer == null || closed) {
+                throw new IllegalStateException("Log is not open for writing.");
+            }
+            long sequence = nextSequence++;
+            queue.add(new Entry(RECORD, sequence, payload));
+            return sequence;
+        }
+    }
+
+    // Marks the current end of the log and returns the last sequence number it contains.
+    // Pass that number to compact() once a snapshot covering it is safely on disk.
+    public synchronized long mark() {
+        if (writer == null || closed) {
+            throw new IllegalStateException("Log is not open for writing.");
+        }
+        long sequence = nextSequence - 1;
+        queue.add(new Entry(MARK, sequence, null));
+        return sequence;
+    }
+
+    // Drops every record up to the given mark by rewriting the log with only its tail.
+    public synchronized void compact(long markedSequence) {
+        if (writer != null && !closed) {
+            queue.add(new Entry(COMPACT, markedSequence, null));
+        }
+    }
+
+    public synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    public long durableSequence() {
+        return durableSequence;
+    }
+
+    // Blocks until everything appended before the call is on disk.
+    public void flush() throws IOException {
+        awaitDurable(lastSequence());
+    }
+
+    // Blocks until the record with the given sequence, and every one before it, is on disk.
+    public void awaitDurable(long sequence) throws IOException {
+        if (writer == null || durableSequence >= sequence) {
+            return;
+        }
+        synchronized (durableMonitor) {
+            while (durableSequence < sequence && failure == null && writer.isAlive()) {
+                try {
+                    durableMonitor.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for " + file + ".");
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        CRC32 crc = new CRC32();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH);
+                long last = durableSequence;
+                for (Entry entry : batch) {
+                    if (entry.kind == CLOSE) {
+                        running = false;
+                        continue;
+                    }
+                    if (entry.kind == MARK) {
+                        writeFully(buffer);
+                        markedSequence = entry.sequence;
+                        markedPosition = channel.position();
+                        continue;
+                    }
+                    if (entry.kind == COMPACT) {
+                        writeFully(buffer);
+                        if (entry.sequence == markedSequence) {
+                            dropPrefix(markedPosition);
+                            markedSequence = -1;
+                        }
+                        continue;
+                    }
+                    int frameBytes = HEADER_BYTES + entry.payload.length;
+                    if (buffer.remaining() < frameBytes) {
+                        writeFully(buffer);
+                        if (buffer.capacity() < frameBytes) {
+                            buffer = ByteBuffer.allocateDirect(frameBytes);
+                        }
+                    }
+                    buffer.putInt(entry.payload.length).putInt(checksum(crc, entry.sequence, entry.payload))
+                            .putLong(entry.sequence).put(entry.payload);
+                    last = Math.max(last, entry.sequence);
+                }
+                writeFully(buffer);
+                channel.force(false);
+                synchronized (durableMonitor) {
+                    durableSequence = last;
+                    durableMonitor.notifyAll();
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (IOException e) {
+                failure = e;
+                System.err.println("Write-ahead log " + file + " failed: " + e.getMessage());
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+        synchronized (durableMonitor) {
+            durableMonitor.notifyAll();
+        }
+    }
+
+    private static int checksum(CRC32 crc, long sequence, byte[] payload) {
+        crc.reset();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (sequence >>> shift));
+        }
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private void dropPrefix(long position) throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long end = channel.size();
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+            out.force(true);
+        }
+        channel.close();
+        Files.move(compacted, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (writer != null) {
+                queue.add(new Entry(CLOSE, -1, null));
+            }
+        }
+        try {
+            if (writer != null) {
+                writer.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            channel.close();
+            fileLock.release();
+            lockChannel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            System.err.println("Could not close " + file + ": " + e.getMessage());
+        }
+    }
+}
\ No newline at end of file
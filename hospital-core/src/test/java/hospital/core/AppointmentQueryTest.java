@@ -0,0 +1,81 @@
+package hospital.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class AppointmentQueryTest {
+    @Test
+    void queriesReturnSnapshotsThatDoNotChangeLater() {
+        HospitalService service = new HospitalService();
+        service.addDoctor("Dr. Smith", "Cardiology");
+        service.addPatient("Alice", 30, "Checkup");
+        service.scheduleAppointment(1, 1, "2031-01-01 09:00");
+        List<Appointment> forDoctor = service.getAppointmentsForDoctor(1);
+        NavigableMap<Long, List<Appointment>> onDay = service.getAppointmentsOn("2031-01-01");
+        service.scheduleAppointment(1, 1, "2031-01-01 10:00");
+
+        assertEquals(1, forDoctor.size());
+        assertEquals(1, onDay.size());
+        assertEquals(2, service.getAppointmentsForPatient(1).size());
+        assertEquals(2, service.getAppointmentsOn("2031-01-01").size());
+        assertThrows(UnsupportedOperationException.class, () -> forDoctor.add(null));
+    }
+
+    // Readers on other threads run while bookings are added, as the API server and the Swing
+    // executors do.
+    @Test
+    void queriesAreSafeWhileBooking() throws Exception {
+        HospitalService service = new HospitalService();
+        for (int i = 0; i < 8; i++) {
+            service.addDoctor("Doctor " + i, "General");
+        }
+        service.addPatient("Alice", 30, "Checkup");
+        int bookings = 2000;
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(pool.submit(() -> {
+                    int lastSeen = 0;
+                    while (!done.get()) {
+                        List<Appointment> forPatient = service.getAppointmentsForPatient(1);
+                        for (Appointment appointment : forPatient) {
+                            assertEquals(1, appointment.getPatient().getId());
+                        }
+                        assertTrue(forPatient.size() >= lastSeen);
+                        lastSeen = forPatient.size();
+                        for (List<Appointment> slot : service.getAppointmentsBetween("2031-01-01", "2031-12-31").values()) {
+                            assertFalse(slot.isEmpty());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < bookings; i++) {
+                service.scheduleAppointment(1, 1 + i % 8, AppointmentTime.formatDateTime(
+                        AppointmentTime.parse("2031-01-01") + (i / 8) * 30L));
+            }
+            done.set(true);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        assertEquals(bookings, service.getAppointmentsForPatient(1).size());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package hospital.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AvailabilityIndexTest {
+    // 09:00 to 12:00 in 15 minute slots, 30 minute appointments: 12 slots a day, 11 starts
+    private static final LocalTime OPEN = LocalTime.of(9, 0);
+    private static final LocalTime CLOSE = LocalTime.of(12, 0);
+    private static final int SLOT = 15;
+    private static final long LENGTH = 30;
+    private static final long DAY = AppointmentTime.MINUTES_PER_DAY;
+    private static final long FIRST_DAY = AppointmentTime.parse("2031-01-06");
+
+    private final StringDictionary specializations = new StringDictionary();
+
+    private static String slotsToString(List<AvailabilityIndex.Slot> slots) {
+        StringBuilder sb = new StringBuilder();
+        for (AvailabilityIndex.Slot slot : slots) {
+            sb.append(AppointmentTime.formatDateTime(slot.getStartMinute())).append(" #")
+                    .append(slot.getDoctor().getId()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // Every slot start from the first one at or after from, day by day, doctor by doctor, in
+    // which the doctor has none of the slots a booking would cover taken.
+    private static String bruteForce(List<Doctor> doctors, List<List<long[]>> bookings, long from, int count) {
+        StringBuilder sb = new StringBuilder();
+        int found = 0;
+        long open = OPEN.toSecondOfDay() / 60;
+        int slotsPerDay = (int) ((CLOSE.toSecondOfDay() / 60 - open) / SLOT);
+        int slotsPerBooking = (int) ((LENGTH + SLOT - 1) / SLOT);
+        for (long day = Math.floorDiv(from, DAY); found < count; day++) {
+            for (int slot = 0; slot + slotsPerBooking <= slotsPerDay && found < count; slot++) {
+                long start = day * DAY + open + slot * SLOT;
+                if (start < from) {
+                    continue;
+                }
+                for (int d = 0; d < doctors.size() && found < count; d++) {
+                    if (isFree(bookings.get(d), start, slotsPerBooking)) {
+                        sb.append(AppointmentTime.formatDateTime(start)).append(" #")
+                                .append(doctors.get(d).getId()).append('\n');
+                        found++;
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isFree(List<long[]> bookings, long start, int slotsPerBooking) {
+        for (int i = 0; i < slotsPerBooking; i++) {
+            long slotStart = start + i * SLOT;
+            for (long[] booking : bookings) {
+                if (booking[0] < slotStart + SLOT && slotStart < booking[0] + booking[1]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Test
+    void matchesBruteForceOverRandomBookings() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            AvailabilityIndex index = new AvailabilityIndex(OPEN, CLOSE, SLOT, LENGTH);
+            int doctorCount = 1 + random.nextInt(4);
+            List<Doctor> doctors = new ArrayList<>();
+            List<List<long[]>> bookings = new ArrayList<>();
+            for (int d = 0; d < doctorCount; d++) {
+                Doctor doctor = new Doctor(d + 1, "Dr. " + d, "Cardiology", specializations);
+                index.addDoctor(doctor);
+                doctors.add(doctor);
+                bookings.add(new ArrayList<>());
+            }
+            // Any minute of the first three days, inside working hours or not, at any length
+            int bookingCount = random.nextInt(60);
+            for (int b = 0; b < bookingCount; b++) {
+                int d = random.nextInt(doctorCount);
+                long start = FIRST_DAY + random.nextInt(3) * DAY + 8 * 60 + random.nextInt(5 * 60);
+                long length = random.nextBoolean() ? LENGTH : 1 + random.nextInt(120);
+                index.book(d + 1, start, length);
+                bookings.get(d).add(new long[] {start, length});
+            }
+            long from = FIRST_DAY + random.nextInt(3) * DAY + random.nextInt((int) DAY);
+            int count = 1 + random.nextInt(40);
+            String expected = bruteForce(doctors, bookings, from, count);
+            String actual = slotsToString(index.findFree(specializations.codeOf("Cardiology"), from, count));
+            assertEquals(expected, actual, "round " + round);
+        }
+    }
+
+    @Test
+    void searchFromLateInTheDayMovesToTheNextMorning() {
+        AvailabilityIndex index = new AvailabilityIndex(OPEN, CLOSE, SLOT, LENGTH);
+        index.addDoctor(new Doctor(1, "Dr. Smith", "Cardiology", specializations));
+        int code = specializations.codeOf("Cardiology");
+        // 11:30 is the last start that still ends by closing time
+        assertEquals(FIRST_DAY + 11 * 60 + 30, index.findFree(code, FIRST_DAY + 11 * 60 + 30, 1).get(0).getStartMinute());
+        assertEquals(FIRST_DAY + DAY + 9 * 60, index.findFree(code, FIRST_DAY + 11 * 60 + 31, 1).get(0).getStartMinute());
+        assertEquals(FIRST_DAY + DAY + 9 * 60, index.findFree(code, FIRST_DAY + 23 * 60, 1).get(0).getStartMinute());
+        // Before opening the first slot of the same day comes first
+        assertEquals(FIRST_DAY + 9 * 60, index.findFree(code, FIRST_DAY + 60, 1).get(0).getStartMinute());
+    }
+
+    @Test
+    void fullyBookedDaysAreSkipped() {
+        AvailabilityIndex index = new AvailabilityIndex(OPEN, CLOSE, SLOT, LENGTH);
+        index.addDoctor(new Doctor(1, "Dr. Smith", "Cardiology", specializations));
+        index.addDoctor(new Doctor(2, "Dr. Jones", "Cardiology", specializations));
+        int code = specializations.codeOf("Cardiology");
+        // Both doctors busy all of the first day, and the first one all of the second day too
+        index.book(1, FIRST_DAY + 9 * 60, 2 * DAY);
+        index.book(2, FIRST_DAY + 9 * 60, 3 * 60);
+        List<AvailabilityIndex.Slot> slots = index.findFree(code, FIRST_DAY, 2);
+        assertEquals(2, slots.size());
+        assertEquals(FIRST_DAY + DAY + 9 * 60, slots.get(0).getStartMinute());
+        assertEquals(2, slots.get(0).getDoctor().getId());
+        assertEquals(FIRST_DAY + DAY + 9 * 60 + 15, slots.get(1).getStartMinute());
+        assertEquals(FIRST_DAY + 2 * DAY + 9 * 60, index.findFree(code, FIRST_DAY + DAY + 12 * 60, 1).get(0).getStartMinute());
+        assertTrue(index.findFree(code + 1, FIRST_DAY, 1).isEmpty());
+    }
+}
\ No newline at end of file
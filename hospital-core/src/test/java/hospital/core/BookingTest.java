@@ -0,0 +1,103 @@
+package hospital.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class BookingTest {
+    private static HospitalService withDoctors(int doctors, int patients) {
+        HospitalService service = new HospitalService();
+        for (int i = 1; i <= doctors; i++) {
+            service.addDoctor("Dr. " + i, "Cardiology");
+        }
+        for (int i = 1; i <= patients; i++) {
+            service.addPatient("Patient " + i, 30, "Checkup");
+        }
+        return service;
+    }
+
+    // Appointments last 30 minutes: one starting inside another clashes, one starting as it
+    // ends does not.
+    @Test
+    void overlappingBookingIsRejectedAndAdjacentOneKept() {
+        HospitalService service = withDoctors(1, 3);
+        service.scheduleAppointment(1, 1, "2031-01-01 09:00");
+        assertThrows(IllegalArgumentException.class, () -> service.scheduleAppointment(2, 1, "2031-01-01 09:15"));
+        assertThrows(IllegalArgumentException.class, () -> service.scheduleAppointment(2, 1, "2031-01-01 08:45"));
+        service.scheduleAppointment(3, 1, "2031-01-01 09:30");
+        assertEquals(2, service.getAppointmentCount());
+        assertEquals(2, service.getDoctorLoad(1));
+    }
+
+    // A booking made with a LocalDateTime clashes with the same time given as text.
+    @Test
+    void typedAndTextDatesNameTheSameSlot() {
+        HospitalService service = withDoctors(2, 3);
+        service.scheduleAppointment(1, 1, LocalDateTime.of(2031, 1, 1, 9, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.scheduleAppointment(2, 1, "2031-01-01 09:00"));
+        Appointment second = service.scheduleWithLeastLoadedDoctor(2, "Cardiology", LocalDateTime.of(2031, 1, 1, 9, 0));
+        assertEquals(2, second.getDoctor().getId());
+        assertEquals("2031-01-01 09:00", AppointmentTime.format(second.getTime()));
+        assertEquals(AppointmentTime.parse("2031-01-01 09:30"),
+                service.findFreeSlots("Cardiology", LocalDateTime.of(2031, 1, 1, 9, 0), 1).get(0).getStartMinute());
+        assertThrows(IllegalArgumentException.class, () -> service.scheduleAppointment(3, 1, (LocalDateTime) null));
+    }
+
+    @Test
+    void leastLoadedSchedulingSkipsBusyDoctors() {
+        HospitalService service = withDoctors(2, 3);
+        service.scheduleAppointment(1, 1, "2031-01-01 09:00");
+        Appointment second = service.scheduleWithLeastLoadedDoctor(2, "Cardiology", "2031-01-01 09:00");
+        assertEquals(2, second.getDoctor().getId());
+        assertThrows(IllegalArgumentException.class,
+                () -> service.scheduleWithLeastLoadedDoctor(3, "Cardiology", "2031-01-01 09:10"));
+        assertEquals(2, service.getAppointmentCount());
+    }
+
+    // Bookings hold only their doctor's lock stripe; racing ones for the same slot must still
+    // let exactly one through.
+    @Test
+    void racingBookingsForOneSlotLetOneThrough() throws Exception {
+        HospitalService service = new HospitalService();
+        service.addDoctor("Dr. Smith", "Cardiology");
+        int threads = 8;
+        for (int i = 0; i < threads; i++) {
+            service.addPatient("Patient " + i, 30, "Checkup");
+        }
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> outcomes = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int patientId = i + 1;
+                outcomes.add(pool.submit(() -> {
+                    ready.await();
+                    try {
+                        service.scheduleAppointment(patientId, 1, "2031-01-01 09:" + (10 + patientId));
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                }));
+            }
+            ready.countDown();
+            int booked = 0;
+            for (Future<Boolean> outcome : outcomes) {
+                booked += outcome.get() ? 1 : 0;
+            }
+            assertEquals(1, booked);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, service.getAppointmentCount());
+        assertEquals(1, service.getDoctorLoad(1));
+    }
+}
\ No newline at end of file
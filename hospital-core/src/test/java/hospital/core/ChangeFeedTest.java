@@ -0,0 +1,85 @@
+package hospital.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ChangeFeedTest {
+    // Requests nothing until told to, and records what it is sent.
+    private static final class Recorder implements Flow.Subscriber<List<ChangeEvent>> {
+        final List<ChangeEvent> events = new CopyOnWriteArrayList<>();
+        final CompletableFuture<Flow.Subscription> subscribed = new CompletableFuture<>();
+        final CompletableFuture<Throwable> failed = new CompletableFuture<>();
+        final CompletableFuture<Void> completed = new CompletableFuture<>();
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscribed.complete(subscription);
+        }
+
+        @Override
+        public void onNext(List<ChangeEvent> batch) {
+            events.addAll(batch);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            failed.complete(error);
+        }
+
+        @Override
+        public void onComplete() {
+            completed.complete(null);
+        }
+    }
+
+    @Test
+    void readReturnsRetainedEventsAndRefusesOverwrittenOnes() {
+        ChangeFeed feed = new ChangeFeed(4);
+        for (int i = 0; i < 6; i++) {
+            feed.publish(ChangeEvent.Type.PATIENT_ADDED, "patient " + i);
+        }
+        assertEquals(6, feed.lastSequence());
+        List<ChangeEvent> events = feed.read(3, 10);
+        assertEquals(3, events.size());
+        assertEquals(4, events.get(0).getSequence());
+        ChangeFeed.OverflowException e = assertThrows(ChangeFeed.OverflowException.class, () -> feed.read(0, 10));
+        assertEquals(0, e.getLastDelivered());
+        feed.close();
+    }
+
+    @Test
+    void subscriberThatFallsBehindIsDroppedAndCanResume() throws Exception {
+        ChangeFeed feed = new ChangeFeed(64);
+        Recorder slow = new Recorder();
+        feed.subscribe(slow, 0, 4, 2);
+        slow.subscribed.get(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            feed.publish(ChangeEvent.Type.DOCTOR_ADDED, "doctor " + i);
+        }
+        Throwable error = slow.failed.get(5, TimeUnit.SECONDS);
+        assertInstanceOf(ChangeFeed.OverflowException.class, error);
+        long lastDelivered = ((ChangeFeed.OverflowException) error).getLastDelivered();
+        assertEquals(0, lastDelivered);
+        assertEquals(0, feed.subscriberCount());
+
+        Recorder resumed = new Recorder();
+        feed.subscribe(resumed, lastDelivered, 64, 2);
+        resumed.subscribed.get(5, TimeUnit.SECONDS).request(Long.MAX_VALUE);
+        feed.close();
+        resumed.completed.get(5, TimeUnit.SECONDS);
+        assertEquals(5, resumed.events.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i + 1, resumed.events.get(i).getSequence());
+        }
+        assertTrue(slow.events.isEmpty());
+    }
+}
\ No newline at end of file
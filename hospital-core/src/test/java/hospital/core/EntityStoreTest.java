@@ -0,0 +1,68 @@
+package hospital.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class EntityStoreTest {
+    @Test
+    void findsEntriesByIdAndRejectsDuplicates() {
+        EntityStore<Integer> store = new EntityStore<>(id -> id);
+        store.ensureCapacity(100);
+        for (int id = 1; id <= 1000; id += 3) {
+            store.add(id);
+        }
+        assertEquals(334, store.size());
+        assertEquals(Integer.valueOf(997), store.get(997));
+        assertNull(store.get(998));
+        assertEquals(Integer.valueOf(4), store.getAt(1));
+        assertThrows(IllegalArgumentException.class, () -> store.add(4));
+    }
+
+    // One writer, as the service lock arranges; readers take no lock and must find every entry
+    // below the size they read, across the table being rehashed.
+    @Test
+    void readersWithoutLockSeeEveryPublishedEntry() throws Exception {
+        EntityStore<Integer> store = new EntityStore<>(id -> id);
+        int entries = 200_000;
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(pool.submit(() -> {
+                    while (!done.get()) {
+                        int n = store.size();
+                        for (int id = Math.max(1, n - 64); id <= n; id++) {
+                            assertNotNull(store.get(id), "id " + id + " of " + n);
+                        }
+                        List<Integer> snapshot = store.snapshot();
+                        if (!snapshot.isEmpty()) {
+                            assertEquals(snapshot.size(), (int) snapshot.get(snapshot.size() - 1));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int id = 1; id <= entries; id++) {
+                store.add(id);
+            }
+            done.set(true);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(entries, store.size());
+    }
+}
\ No newline at end of file
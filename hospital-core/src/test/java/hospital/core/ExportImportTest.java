@@ -0,0 +1,107 @@
+package hospital.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExportImportTest {
+    @TempDir
+    Path dir;
+
+    // Exports every store to CSV and imports the files, doctors and patients first, into a new service.
+    private HospitalService roundTrip(HospitalService service) throws IOException {
+        Path doctors = dir.resolve("doctors.csv");
+        Path patients = dir.resolve("patients.csv");
+        Path appointments = dir.resolve("appointments.csv");
+        Exporter.exportDoctors(service, doctors);
+        Exporter.exportPatients(service, patients);
+        Exporter.exportAppointments(service, appointments, 0, null, null);
+        Path all = dir.resolve("all.csv");
+        for (Path part : List.of(doctors, patients, appointments)) {
+            Files.write(all, Files.readAllBytes(part), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        HospitalService copy = new HospitalService();
+        CsvImporter.Report report = CsvImporter.importFile(copy, all);
+        assertEquals(0, report.getRejected(), () -> report.getErrors().toString());
+        return copy;
+    }
+
+    @Test
+    void csvExportsImportBack() throws IOException {
+        HospitalService service = new HospitalService();
+        service.addDoctor("Dr. Smith, Jr.", "Cardiology");
+        service.addPatient("Alice \"Al\" Smith", 30, "Heart Palpitations", "555-0100");
+        service.scheduleAppointment(1, 1, "2031-01-01 09:00");
+
+        HospitalService copy = roundTrip(service);
+        assertEquals("Dr. Smith, Jr.", copy.findDoctorById(1).getName());
+        Patient alice = copy.findPatientById(1);
+        assertEquals("Alice \"Al\" Smith", alice.getName());
+        assertEquals(30, alice.getAge());
+        assertEquals("Heart Palpitations", alice.getDiagnosis());
+        assertEquals("555-0100", alice.getContactInfo());
+        assertEquals(1, copy.getAppointmentsForPatient(1).size());
+    }
+
+    // The doctor appointment system records neither age nor diagnosis.
+    @Test
+    void patientsWithoutAgeOrDiagnosisImportBack() throws IOException {
+        HospitalService service = new HospitalService();
+        service.addPatient("Jane Roe", "555-5678");
+
+        Patient jane = roundTrip(service).findPatientById(1);
+        assertFalse(jane.hasAge());
+        assertFalse(jane.hasDiagnosis());
+        assertEquals("555-5678", jane.getContactInfo());
+    }
+
+    @Test
+    void jsonLinesCarryContactInfoAndMissingFieldsAsNull() throws IOException {
+        HospitalService service = new HospitalService();
+        service.addPatient("Jane Roe", "555-5678");
+        Path file = dir.resolve("patients.jsonl");
+        Exporter.exportPatients(service, file);
+        assertEquals("{\"id\":1,\"name\":\"Jane Roe\",\"age\":null,\"diagnosis\":null,\"contactInfo\":\"555-5678\"}\n",
+                Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importReportsBadRowsAndKeepsTheRest() throws IOException {
+        Path file = dir.resolve("bad.csv");
+        Files.writeString(file, "# legacy data\n"
+                + "patient,,Alice,30,Checkup\n"
+                + "patient,,Bob,abc,Checkup\n"
+                + "doctor,,,Cardiology\n"
+                + "appointment,1,9,2031-01-01 09:00\n");
+        HospitalService service = new HospitalService();
+        CsvImporter.Report report = CsvImporter.importFile(service, file);
+        assertEquals(1, report.getPatients());
+        assertEquals(3, report.getRejected());
+        assertTrue(report.getErrors().get(0).startsWith("Line 3: "));
+    }
+
+    @Test
+    void importRejectsAppointmentThatClashes() throws IOException {
+        HospitalService service = new HospitalService();
+        service.addDoctor("Dr. Smith", "Cardiology");
+        service.addPatient("Alice", 30, "Checkup");
+        service.addPatient("Bob", 40, "Checkup");
+        service.scheduleAppointment(1, 1, "2031-01-01 09:00");
+        Path file = dir.resolve("appointments.csv");
+        Files.writeString(file, "appointment,2,1,2031-01-01 09:10\n"
+                + "appointment,2,1,2031-01-01 10:00\n");
+        CsvImporter.Report report = CsvImporter.importFile(service, file);
+        assertEquals(1, report.getAppointments());
+        assertEquals(1, report.getRejected());
+        assertEquals(2, service.getAppointmentCount());
+    }
+}
\ No newline at end of file
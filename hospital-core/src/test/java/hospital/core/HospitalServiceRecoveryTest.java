@@ -0,0 +1,89 @@
+package hospital.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HospitalServiceRecoveryTest {
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void logReplaysAfterRestart() throws IOException {
+        try (HospitalService service = HospitalService.open(dataDir)) {
+            service.addDoctor("Dr. Smith", "Cardiology");
+            service.addPatient("Alice", 30, "Heart Palpitations", "555-0100");
+            service.scheduleAppointment(1, 1, "2031-01-01 09:00");
+        }
+        try (HospitalService service = HospitalService.open(dataDir)) {
+            assertEquals(1, service.getDoctorCount());
+            assertEquals("555-0100", service.findPatientById(1).getContactInfo());
+            assertNotNull(service.getDoctorAppointmentAt(1, "2031-01-01 09:00"));
+        }
+    }
+
+    @Test
+    void idsContinueAfterReplay() throws IOException {
+        try (HospitalService service = HospitalService.open(dataDir)) {
+            service.addDoctor("Dr. Smith", "Cardiology");
+            service.addDoctor("Dr. Jones", "Neurology");
+            for (int i = 0; i < 3; i++) {
+                service.addPatient("Patient " + i, 30, "Checkup");
+            }
+            service.scheduleAppointment(1, 1, "2031-01-01 09:00");
+            service.scheduleAppointment(2, 2, "2031-01-01 09:00");
+        }
+        try (HospitalService service = HospitalService.open(dataDir)) {
+            assertEquals(4, service.addPatient("Dana", 20, "Checkup").getId());
+            assertEquals(3, service.addDoctor("Dr. Brown", "Dermatology").getId());
+            assertEquals(3, service.scheduleAppointment(3, 1, "2031-01-01 10:00").getId());
+        }
+    }
+
+    // A snapshot compacts the log away; records written after the next restart must still be
+    // numbered past the snapshot, or the restart after that skips them.
+    @Test
+    void writesAfterSnapshotAndRestartSurviveTheNextRestart() throws IOException {
+        try (HospitalService service = HospitalService.open(dataDir)) {
+            for (int i = 0; i < 100; i++) {
+                service.addPatient("Patient " + i, i, "Checkup");
+            }
+            service.writeSnapshot();
+        }
+        try (HospitalService service = HospitalService.open(dataDir)) {
+            assertEquals(100, service.getPatientCount());
+            service.addPatient("Late", 40, "Checkup");
+        }
+        try (HospitalService service = HospitalService.open(dataDir)) {
+            assertEquals(101, service.getPatientCount());
+            assertEquals("Late", service.findPatientById(101).getName());
+            service.addPatient("Later", 41, "Checkup");
+        }
+        try (HospitalService service = HospitalService.open(dataDir)) {
+            assertEquals(102, service.getPatientCount());
+        }
+    }
+
+    @Test
+    void snapshotAndLogTailAreCombined() throws IOException {
+        try (HospitalService service = HospitalService.open(dataDir)) {
+            service.addDoctor("Dr. Jones", "Neurology");
+            service.addPatient("Bob", 45, "Migraines");
+            service.writeSnapshot();
+            service.addPatient("Carol", 50, "Migraines");
+            service.scheduleAppointment(2, 1, "2031-01-01 10:00");
+        }
+        assertTrue(Files.exists(dataDir.resolve("hospital.snapshot")));
+        try (HospitalService service = HospitalService.open(dataDir)) {
+            assertEquals(2, service.getPatientCount());
+            assertEquals(1, service.getAppointmentCount());
+            assertEquals("Carol", service.getAllAppointments().get(0).getPatient().getName());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package hospital.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class IdAllocatorTest {
+    @Test
+    void singleThreadNumbersDenselyAndResumesPastTheMark() {
+        IdAllocator ids = new IdAllocator();
+        assertEquals(1, ids.nextId());
+        assertEquals(2, ids.nextId());
+        ids.resumeFrom(10);
+        assertEquals(11, ids.nextId());
+        // A lower mark never moves numbering back
+        ids.resumeFrom(5);
+        assertEquals(12, ids.nextId());
+        assertEquals(12, ids.highWaterMark());
+    }
+
+    @Test
+    void racingThreadsGetUniqueIds() throws Exception {
+        IdAllocator ids = new IdAllocator();
+        int threads = 8;
+        int perThread = 50_000;
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    ready.await();
+                    int[] taken = new int[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        taken[i] = ids.nextId();
+                    }
+                    return taken;
+                }));
+            }
+            ready.countDown();
+            Set<Integer> unique = new HashSet<>();
+            for (Future<int[]> result : results) {
+                for (int id : result.get()) {
+                    assertTrue(unique.add(id), "id " + id + " handed out twice");
+                }
+            }
+            assertEquals(threads * perThread, unique.size());
+
+            // Threads still holding part of a reserved block must drop it after a resume
+            int mark = ids.highWaterMark() + 1000;
+            ids.resumeFrom(mark);
+            List<Future<Integer>> after = new ArrayList<>();
+            for (int t = 0; t < threads * 4; t++) {
+                after.add(pool.submit(ids::nextId));
+            }
+            for (Future<Integer> id : after) {
+                assertTrue(id.get() > mark, "id " + id.get() + " not past " + mark);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package hospital.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+    @Test
+    void valuesBelowSixteenAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 0; value < 16; value++) {
+            histogram.record(value);
+        }
+        assertEquals(7, histogram.percentileNanos(50));
+        assertEquals(15, histogram.percentileNanos(100));
+        assertEquals(0, histogram.percentileNanos(0));
+    }
+
+    // 31 is the last value with unit steps; from 32 on, buckets are two wide.
+    @Test
+    void bucketBoundaries() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(31);
+        histogram.record(1000);
+        assertEquals(31, histogram.percentileNanos(50));
+
+        histogram = new LatencyHistogram();
+        histogram.record(32);
+        histogram.record(1000);
+        assertEquals(33, histogram.percentileNanos(50));
+        assertEquals(1000, histogram.percentileNanos(100));
+
+        // Negative values count as 0, values past the last bucket report the maximum
+        histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(1L << 50);
+        assertEquals(0, histogram.percentileNanos(50));
+        assertEquals(1L << 50, histogram.percentileNanos(100));
+        assertEquals(1L << 50, histogram.maxNanos());
+    }
+
+    @Test
+    void percentilesStayWithinOneSixteenth() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int values = 1_000_000;
+        for (int value = 1; value <= values; value++) {
+            histogram.record(value);
+        }
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            long exact = (long) Math.ceil(percentile / 100 * values);
+            long reported = histogram.percentileNanos(percentile);
+            assertTrue(reported >= exact && reported <= exact + exact / 16,
+                    "p" + percentile + " reported " + reported + " for " + exact);
+        }
+        assertEquals(values, histogram.count());
+        assertEquals((values + 1) / 2.0, histogram.meanNanos(), 1e-6);
+    }
+
+    @Test
+    void concurrentRecordingLosesNothing() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 8;
+        int perThread = 100_000;
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long value = 100 * (t + 1);
+                writers.add(pool.submit(() -> {
+                    ready.await();
+                    for (int i = 0; i < perThread; i++) {
+                        histogram.record(value);
+                    }
+                    return null;
+                }));
+            }
+            ready.countDown();
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals((long) threads * perThread, histogram.count());
+        assertEquals(450.0, histogram.meanNanos(), 1e-9);
+        assertEquals(800, histogram.maxNanos());
+        assertEquals(800, histogram.percentileNanos(100));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package hospital.core;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class MetricsTest {
+    @Test
+    void reportsCountsFailuresAndGauges() {
+        Metrics metrics = new Metrics();
+        Metrics.Timer timer = metrics.timer("book");
+        assertSame(timer, metrics.timer("book"));
+        long start = System.nanoTime();
+        timer.record(start);
+        timer.record(start);
+        timer.recordFailure(start);
+        metrics.gauge("patients", () -> 42);
+
+        String json = metrics.toJson();
+        assertTrue(json.contains("\"book\":{\"count\":3,\"failures\":1,"), json);
+        assertTrue(json.contains("\"patients\":42"), json);
+        String text = metrics.toText();
+        assertTrue(text.contains("book"), text);
+        assertTrue(text.matches("(?s).*patients\\s+42.*"), text);
+    }
+}
\ No newline at end of file
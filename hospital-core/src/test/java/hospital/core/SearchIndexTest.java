@@ -0,0 +1,44 @@
+package hospital.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SearchIndexTest {
+    @Test
+    void shortPrefixStopsAtTheLimit() {
+        SearchIndex<String> index = new SearchIndex<>(text -> text);
+        for (int i = 0; i < 10_000; i++) {
+            index.add("anna" + i);
+        }
+        index.add("an");
+        List<String> results = index.search("an", 5);
+        assertEquals(5, results.size());
+        // The exact match comes first, then prefix matches in word order
+        assertEquals("an", results.get(0));
+        assertEquals("anna0", results.get(1));
+        assertEquals("anna1", results.get(2));
+    }
+
+    @Test
+    void fuzzyMatchesFillUpWhenPrefixesFallShort() {
+        SearchIndex<String> index = new SearchIndex<>(text -> text);
+        index.add("Cardiology");
+        index.add("Neurology");
+        assertEquals(List.of("Cardiology"), index.search("cardiolgy", 10));
+        assertEquals(List.of("Neurology"), index.search("neuro", 10));
+    }
+
+    // Alice passes the exact pass for "alice" but needs the fuzzy pass for "migranes".
+    @Test
+    void multiWordQueryToleratesOneMisspelledWord() {
+        HospitalService service = new HospitalService();
+        service.addPatient("Alice", 30, "Migraines");
+        service.addPatient("Alicia", 40, "Asthma");
+        assertEquals(1, service.searchPatients("alice migraines", 10).size());
+        List<Patient> results = service.searchPatients("alice migranes", 10);
+        assertEquals(1, results.size());
+        assertEquals("Alice", results.get(0).getName());
+    }
+}
\ No newline at end of file
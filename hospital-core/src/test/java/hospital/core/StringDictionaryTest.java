@@ -0,0 +1,88 @@
+package hospital.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class StringDictionaryTest {
+    @Test
+    void codesAreDenseStableAndDecodeBack() {
+        StringDictionary dictionary = new StringDictionary();
+        assertEquals(-1, dictionary.codeOf("Cardiology"));
+        assertEquals(0, dictionary.encode("Cardiology"));
+        assertEquals(1, dictionary.encode("Neurology"));
+        assertEquals(0, dictionary.encode(new String("Cardiology")));
+        assertEquals(1, dictionary.codeOf("Neurology"));
+        assertEquals("Neurology", dictionary.decode(1));
+        assertEquals(2, dictionary.size());
+    }
+
+    // Every copy after the first is saved, less the map entry the dictionary keeps
+    @Test
+    void repeatedValuesSaveHeap() {
+        StringDictionary dictionary = new StringDictionary();
+        String value = "Heart Palpitations";
+        String first = dictionary.decode(dictionary.encode(value));
+        for (int i = 0; i < 1000; i++) {
+            assertSame(first, dictionary.decode(dictionary.encode(new String(value))));
+        }
+        assertTrue(dictionary.estimatedBytesSaved() > 1000 * 40);
+    }
+
+    @Test
+    void racingEncodersAgreeOnEveryCode() throws Exception {
+        StringDictionary dictionary = new StringDictionary();
+        int threads = 8;
+        int values = 500;
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    ready.await();
+                    int[] codes = new int[values];
+                    for (int i = 0; i < values; i++) {
+                        codes[i] = dictionary.encode("value " + i);
+                    }
+                    return codes;
+                }));
+            }
+            ready.countDown();
+            int[] expected = results.get(0).get();
+            for (Future<int[]> result : results) {
+                int[] codes = result.get();
+                for (int i = 0; i < values; i++) {
+                    assertEquals(expected[i], codes[i]);
+                    assertEquals("value " + i, dictionary.decode(codes[i]));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(values, dictionary.size());
+    }
+
+    @Test
+    void servicesKeepTheirOwnDictionaries() {
+        HospitalService first = new HospitalService();
+        HospitalService second = new HospitalService();
+        first.addDoctor("Dr. Smith", "Cardiology");
+        first.addPatient("Alice", 30, "Migraines");
+        second.addDoctor("Dr. Jones", "Neurology");
+
+        assertEquals(List.of("Cardiology"), first.getSpecializations());
+        assertEquals(List.of("Neurology"), second.getSpecializations());
+        assertTrue(second.getPatientsByDiagnosis("Migraines").isEmpty());
+        assertEquals(0, second.findDoctorById(1).getSpecializationCode());
+        assertEquals("Neurology", second.findDoctorById(1).getSpecialization());
+    }
+}
\ No newline at end of file
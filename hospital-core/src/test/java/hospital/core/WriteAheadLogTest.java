@@ -0,0 +1,109 @@
+package hospital.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteAheadLogTest {
+    @TempDir
+    Path dir;
+
+    private List<Integer> replay(Path file) throws IOException {
+        List<Integer> values = new ArrayList<>();
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            log.replay(0, (sequence, in) -> values.add(in.readInt()));
+        }
+        return values;
+    }
+
+    @Test
+    void awaitDurableReturnsOnceTheRecordIsForced() throws IOException {
+        Path file = dir.resolve("test.wal");
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            log.replay(0, (sequence, in) -> { });
+            long last = 0;
+            for (int i = 0; i < 100; i++) {
+                int value = i;
+                last = log.append(out -> out.writeInt(value));
+            }
+            log.awaitDurable(last);
+            assertTrue(log.durableSequence() >= last);
+            assertTrue(Files.size(file) > 0);
+        }
+        List<Integer> values = replay(file);
+        assertEquals(100, values.size());
+        assertEquals(99, values.get(99));
+    }
+
+    @Test
+    void concurrentWritersAllBecomeDurable() throws Exception {
+        Path file = dir.resolve("test.wal");
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            log.replay(0, (sequence, in) -> { });
+            Thread[] threads = new Thread[8];
+            for (int t = 0; t < threads.length; t++) {
+                int thread = t;
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        int value = thread * 1000 + i;
+                        long sequence = log.append(out -> out.writeInt(value));
+                        try {
+                            log.awaitDurable(sequence);
+                        } catch (IOException e) {
+                            throw new AssertionError(e);
+                        }
+                        assertTrue(log.durableSequence() >= sequence);
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        assertEquals(400, replay(file).size());
+    }
+
+    @Test
+    void tornTailIsCutOffOnReplay() throws IOException {
+        Path file = dir.resolve("test.wal");
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            log.replay(0, (sequence, in) -> { });
+            log.append(out -> out.writeInt(1));
+            log.append(out -> out.writeInt(2));
+        }
+        long intact = Files.size(file);
+        Files.write(file, new byte[] {0, 0, 0, 9, 1, 2}, StandardOpenOption.APPEND);
+
+        assertEquals(List.of(1, 2), replay(file));
+        assertEquals(intact, Files.size(file));
+        // Records written after the cut follow the intact ones
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            log.replay(0, (sequence, in) -> { });
+            assertEquals(3, log.append(out -> out.writeInt(3)));
+        }
+        assertEquals(List.of(1, 2, 3), replay(file));
+    }
+
+    @Test
+    void compactKeepsRecordsAfterTheMark() throws IOException {
+        Path file = dir.resolve("test.wal");
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            log.replay(0, (sequence, in) -> { });
+            log.append(out -> out.writeInt(1));
+            long mark = log.mark();
+            log.append(out -> out.writeInt(2));
+            log.compact(mark);
+            log.flush();
+        }
+        assertEquals(List.of(2), replay(file));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,523 @@
+package hospital.swing;
+
+import hospital.core.AppointmentTime;
+import hospital.core.CsvImporter;
+import hospital.core.Doctor;
+import hospital.core.Exporter;
+import hospital.core.HospitalService;
+import hospital.core.Patient;
+import hospital.ui.CommandExecutor;
+import hospital.ui.TextChangeListener;
+
+import java.awt.BorderLayout;
+import java.awt.CardLayout;
+import java.awt.GridLayout;
+import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JFileChooser;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.text.DefaultCaret;
+
+public class HospitalManagementSystem extends JFrame {
+    private static final int SEARCH_LIMIT = 50;
+    private static final int SEARCH_DEBOUNCE_MILLIS = 200;
+
+    private final HospitalService service;
+    private final CommandExecutor commands;
+    private final CardLayout cardLayout;
+    private final JPanel mainPanel;
+    private final JTextArea viewTextArea;
+    private final JLabel viewStatusLabel;
+    private final JButton stopRenderButton;
+    private ViewRenderer viewRenderer;
+    // Bumped for every search sent off, so results overtaken by newer typing are dropped
+    private int searchGeneration;
+    
+    private final JTextField patientNameField;
+    private final JTextField patientAgeField;
+    private final JTextField patientDiagnosisField;
+
+    private final JTextField doctorNameField;
+    private final JTextField doctorSpecField;
+    
+    private final JTextField appPatientIdField;
+    private final JTextField appDoctorIdField;
+    private final JTextField appDateField;
+
+    public HospitalManagementSystem() {
+        service = openService();
+        service.addSampleDataIfEmpty();
+        commands = new CommandExecutor(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        cardLayout = new CardLayout();
+        mainPanel = new JPanel(cardLayout);
+
+        viewTextArea = new JTextArea(20, 40);
+        viewTextArea.setEditable(false);
+        // Appended chunks must not drag the view to the bottom while the user is reading
+        ((DefaultCaret) viewTextArea.getCaret()).setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
+        viewStatusLabel = new JLabel(" ");
+        stopRenderButton = new JButton("Stop");
+        stopRenderButton.setEnabled(false);
+
+        patientNameField = new JTextField(20);
+        patientAgeField = new JTextField(5);
+        patientDiagnosisField = new JTextField(20);
+
+        doctorNameField = new JTextField(20);
+        doctorSpecField = new JTextField(20);
+
+        appPatientIdField = new JTextField(5);
+        appDoctorIdField = new JTextField(15);
+        appDateField = new JTextField(10);
+
+        mainPanel.add(createMainMenuPanel(), "MENU");
+        mainPanel.add(createAddPatientPanel(), "ADD_PATIENT");
+        mainPanel.add(createAddDoctorPanel(), "ADD_DOCTOR");
+        mainPanel.add(createScheduleAppointmentPanel(), "ADD_APPOINTMENT");
+        mainPanel.add(createViewPanel(), "VIEW");
+        mainPanel.add(createSearchPanel(), "SEARCH");
+
+        add(mainPanel);
+        setTitle("Hospital Management System");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        pack();
+        setLocationRelativeTo(null);
+        setVisible(true);
+    }
+
+    private static HospitalService openService() {
+        Path dataDir = Paths.get(System.getProperty("hospital.dataDir", "hospital-data"));
+        try {
+            return HospitalService.open(dataDir);
+        } catch (IOException | RuntimeException e) {
+            JOptionPane.showMessageDialog(null, "Could not open " + dataDir + ": " + e.getMessage()
+                    + "\nChanges will not be saved.", "Warning", JOptionPane.WARNING_MESSAGE);
+            return new HospitalService();
+        }
+    }
+
+    private JPanel createMainMenuPanel() {
+        JPanel panel = new JPanel(new GridLayout(9, 1, 10, 10));
+        panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JButton addPatientBtn = new JButton("Add Patient");
+        addPatientBtn.addActionListener(e -> cardLayout.show(mainPanel, "ADD_PATIENT"));
+
+        JButton addDoctorBtn = new JButton("Add Doctor");
+        addDoctorBtn.addActionListener(e -> cardLayout.show(mainPanel, "ADD_DOCTOR"));
+
+        JButton scheduleAppBtn = new JButton("Schedule Appointment");
+        scheduleAppBtn.addActionListener(e -> cardLayout.show(mainPanel, "ADD_APPOINTMENT"));
+
+        JButton viewPatientsBtn = new JButton("View Patients");
+        viewPatientsBtn.addActionListener(e -> {
+            updateViewArea(service.getAllPatients());
+            cardLayout.show(mainPanel, "VIEW");
+        });
+
+        JButton viewDoctorsBtn = new JButton("View Doctors");
+        viewDoctorsBtn.addActionListener(e -> {
+            updateViewArea(service.getAllDoctors());
+            cardLayout.show(mainPanel, "VIEW");
+        });
+
+        JButton viewAppsBtn = new JButton("View Appointments");
+        viewAppsBtn.addActionListener(e -> {
+            updateViewArea(service.getAllAppointments());
+            cardLayout.show(mainPanel, "VIEW");
+        });
+
+        panel.add(addPatientBtn);
+        panel.add(addDoctorBtn);
+        panel.add(scheduleAppBtn);
+        panel.add(viewPatientsBtn);
+        panel.add(viewDoctorsBtn);
+        panel.add(viewAppsBtn);
+
+        JButton searchBtn = new JButton("Search");
+        searchBtn.addActionListener(e -> cardLayout.show(mainPanel, "SEARCH"));
+        panel.add(searchBtn);
+
+        JButton importBtn = new JButton("Import from CSV");
+        importBtn.addActionListener(e -> importCsv());
+        panel.add(importBtn);
+
+        JButton exportBtn = new JButton("Export to File");
+        exportBtn.addActionListener(e -> exportToFile());
+        panel.add(exportBtn);
+
+        return panel;
+    }
+
+    private JPanel createFormPanel(String title, JTextField[] fields, JLabel[] labels, ActionListener submitAction) {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JLabel titleLabel = new JLabel(title, JLabel.CENTER);
+        panel.add(titleLabel, BorderLayout.NORTH);
+
+        JPanel formGrid = new JPanel(new GridLayout(fields.length, 2, 10, 10));
+        for (int i = 0; i < fields.length; i++) {
+            formGrid.add(labels[i]);
+            formGrid.add(fields[i]);
+        }
+        panel.add(formGrid, BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel();
+        JButton submitButton = new JButton("Submit");
+        submitButton.addActionListener(submitAction);
+        
+        JButton backButton = new JButton("Back to Menu");
+        backButton.addActionListener(e -> cardLayout.show(mainPanel, "MENU"));
+
+        buttonPanel.add(submitButton);
+        buttonPanel.add(backButton);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+
+        return panel;
+    }
+
+    private JPanel createAddPatientPanel() {
+        JTextField[] fields = {patientNameField, patientAgeField, patientDiagnosisField};
+        JLabel[] labels = {new JLabel("Name:"), new JLabel("Age:"), new JLabel("Diagnosis:")};
+        
+        ActionListener action = e -> {
+            try {
+                String name = patientNameField.getText();
+                int age = Integer.parseInt(patientAgeField.getText());
+                String diagnosis = patientDiagnosisField.getText();
+                
+                if (name.isEmpty() || diagnosis.isEmpty()) {
+                    throw new IllegalArgumentException("Fields cannot be empty.");
+                }
+
+                commands.submit(() -> service.addPatient(name, age, diagnosis), patient -> {
+                    JOptionPane.showMessageDialog(this, "Patient added successfully!");
+                    patientNameField.setText("");
+                    patientAgeField.setText("");
+                    patientDiagnosisField.setText("");
+                    cardLayout.show(mainPanel, "MENU");
+                }, this::showCommandError);
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Invalid age. Please enter a number.", "Error", JOptionPane.ERROR_MESSAGE);
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        };
+        
+        return createFormPanel("Add New Patient", fields, labels, action);
+    }
+
+    private JPanel createAddDoctorPanel() {
+        JTextField[] fields = {doctorNameField, doctorSpecField};
+        JLabel[] labels = {new JLabel("Name:"), new JLabel("Specialization:")};
+        
+        ActionListener action = e -> {
+            try {
+                String name = doctorNameField.getText();
+                String specialization = doctorSpecField.getText();
+
+                if (name.isEmpty() || specialization.isEmpty()) {
+                    throw new IllegalArgumentException("Fields cannot be empty.");
+                }
+
+                commands.submit(() -> service.addDoctor(name, specialization), doctor -> {
+                    JOptionPane.showMessageDialog(this, "Doctor added successfully!");
+                    doctorNameField.setText("");
+                    doctorSpecField.setText("");
+                    cardLayout.show(mainPanel, "MENU");
+                }, this::showCommandError);
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        };
+        
+        return createFormPanel("Add New Doctor", fields, labels, action);
+    }
+
+    private JPanel createScheduleAppointmentPanel() {
+        JTextField[] fields = {appPatientIdField, appDoctorIdField, appDateField};
+        JLabel[] labels = {new JLabel("Patient ID:"), new JLabel("Doctor ID or Specialization:"), new JLabel("Date (YYYY-MM-DD [HH:mm]):")};
+        
+        ActionListener action = e -> {
+            try {
+                int patientId = Integer.parseInt(appPatientIdField.getText());
+                String doctor = appDoctorIdField.getText().trim();
+                String date = appDateField.getText();
+
+                if (doctor.isEmpty() || date.isEmpty()) {
+                    throw new IllegalArgumentException("Fields cannot be empty.");
+                }
+
+                LocalDateTime dateTime = AppointmentTime.parseDateTime(date);
+                // A specialization books its least loaded doctor who is free at that date
+                boolean byId = doctor.length() < 10 && doctor.chars().allMatch(Character::isDigit);
+                int doctorId = byId ? Integer.parseInt(doctor) : 0;
+                // Keyed by doctor (or specialization) so bookings for it are applied in the order they were made
+                commands.submit(byId ? doctorId : doctor.hashCode(), () -> byId
+                        ? service.scheduleAppointment(patientId, doctorId, dateTime)
+                        : service.scheduleWithLeastLoadedDoctor(patientId, doctor, dateTime), appointment -> {
+                    JOptionPane.showMessageDialog(this, "Appointment scheduled with " + appointment.getDoctor().getName() + "!");
+                    appPatientIdField.setText("");
+                    appDoctorIdField.setText("");
+                    appDateField.setText("");
+                    cardLayout.show(mainPanel, "MENU");
+                }, this::showCommandError);
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Invalid ID. Please enter a number.", "Error", JOptionPane.ERROR_MESSAGE);
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        };
+        
+        return createFormPanel("Schedule Appointment", fields, labels, action);
+    }
+
+    private JPanel createSearchPanel() {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JTextField searchField = new JTextField(30);
+        JTextArea resultsArea = new JTextArea(20, 40);
+        resultsArea.setEditable(false);
+
+        JPanel searchBar = new JPanel(new BorderLayout(10, 10));
+        searchBar.add(new JLabel("Search patients and doctors:"), BorderLayout.WEST);
+        searchBar.add(searchField, BorderLayout.CENTER);
+        panel.add(searchBar, BorderLayout.NORTH);
+        panel.add(new JScrollPane(resultsArea), BorderLayout.CENTER);
+
+        // Searches once typing pauses instead of on every keystroke
+        Timer debounce = new Timer(SEARCH_DEBOUNCE_MILLIS, e -> showSearchResults(searchField.getText(), resultsArea));
+        debounce.setRepeats(false);
+        searchField.getDocument().addDocumentListener((TextChangeListener) debounce::restart);
+
+        JButton backButton = new JButton("Back to Menu");
+        backButton.addActionListener(e -> cardLayout.show(mainPanel, "MENU"));
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.add(backButton);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+
+        return panel;
+    }
+
+    private void showSearchResults(String query, JTextArea resultsArea) {
+        int requested = ++searchGeneration;
+        commands.submit(() -> {
+            StringBuilder sb = new StringBuilder();
+            for (Doctor doctor : service.searchDoctors(query, SEARCH_LIMIT)) {
+                sb.append(doctor).append('\n');
+            }
+            for (Patient patient : service.searchPatients(query, SEARCH_LIMIT)) {
+                sb.append(patient).append('\n');
+            }
+            return sb.toString();
+        }, text -> {
+            if (requested == searchGeneration) {
+                resultsArea.setText(text);
+                resultsArea.setCaretPosition(0);
+            }
+        }, e -> {
+            // A failed search leaves the previous results in place
+        });
+    }
+
+    private void importCsv() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        commands.submit(() -> CsvImporter.importFile(service, file), report -> {
+            StringBuilder message = new StringBuilder(report.toString());
+            int shown = Math.min(report.getErrors().size(), 20);
+            for (int i = 0; i < shown; i++) {
+                message.append('\n').append(report.getErrors().get(i));
+            }
+            if (report.getRejected() > shown) {
+                message.append("\n... and ").append(report.getRejected() - shown).append(" more.");
+            }
+            JOptionPane.showMessageDialog(this, message.toString(), "Import", JOptionPane.INFORMATION_MESSAGE);
+        }, this::showCommandError);
+    }
+
+    private void exportToFile() {
+        String[] choices = {"Patients", "Doctors", "Appointments"};
+        int what = JOptionPane.showOptionDialog(this, "What do you want to export?", "Export",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, choices, choices[2]);
+        if (what < 0) {
+            return;
+        }
+        int doctorId = 0;
+        String fromDate = null;
+        String toDate = null;
+        if (what == 2) {
+            JTextField doctorField = new JTextField(5);
+            JTextField fromField = new JTextField(10);
+            JTextField toField = new JTextField(10);
+            JPanel filters = new JPanel(new GridLayout(3, 2, 5, 5));
+            filters.add(new JLabel("Doctor ID (blank for all):"));
+            filters.add(doctorField);
+            filters.add(new JLabel("From date (blank for no limit):"));
+            filters.add(fromField);
+            filters.add(new JLabel("To date (blank for no limit):"));
+            filters.add(toField);
+            if (JOptionPane.showConfirmDialog(this, filters, "Filter Appointments", JOptionPane.OK_CANCEL_OPTION)
+                    != JOptionPane.OK_OPTION) {
+                return;
+            }
+            try {
+                String doctor = doctorField.getText().trim();
+                doctorId = doctor.isEmpty() ? 0 : Integer.parseInt(doctor);
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Invalid ID. Please enter a number.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            fromDate = blankToNull(fromField.getText());
+            toDate = blankToNull(toField.getText());
+        }
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        int selectedDoctor = doctorId;
+        String from = fromDate;
+        String to = toDate;
+        commands.submit(() -> {
+            if (what == 0) {
+                return Exporter.exportPatients(service, file);
+            } else if (what == 1) {
+                return Exporter.exportDoctors(service, file);
+            }
+            return Exporter.exportAppointments(service, file, selectedDoctor, from, to);
+        }, rows -> JOptionPane.showMessageDialog(this, "Exported " + rows + " rows to " + file + "."),
+                this::showCommandError);
+    }
+
+    private static String blankToNull(String value) {
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private void showCommandError(Exception ex) {
+        JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    private JPanel createViewPanel() {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JScrollPane scrollPane = new JScrollPane(viewTextArea);
+        panel.add(scrollPane, BorderLayout.CENTER);
+
+        stopRenderButton.addActionListener(e -> cancelRendering());
+
+        JButton backButton = new JButton("Back to Menu");
+        backButton.addActionListener(e -> {
+            cancelRendering();
+            cardLayout.show(mainPanel, "MENU");
+        });
+        
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.add(viewStatusLabel);
+        buttonPanel.add(stopRenderButton);
+        buttonPanel.add(backButton);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+
+        return panel;
+    }
+
+    private void updateViewArea(List<?> items) {
+        cancelRendering();
+        viewTextArea.setText("");
+        if (items.isEmpty()) {
+            viewTextArea.setText("No items found.");
+            viewStatusLabel.setText(" ");
+            return;
+        }
+        viewRenderer = new ViewRenderer(items);
+        stopRenderButton.setEnabled(true);
+        viewRenderer.execute();
+    }
+
+    private void cancelRendering() {
+        if (viewRenderer != null) {
+            viewRenderer.cancel(true);
+            viewStatusLabel.setText("Stopped after " + viewRenderer.rendered + " of " + viewRenderer.items.size());
+            viewRenderer = null;
+        }
+        stopRenderButton.setEnabled(false);
+    }
+
+    // Formats the items off the EDT and hands the text over in chunks, so the document
+    // sees one insert per chunk instead of one per item and the window stays responsive.
+    private class ViewRenderer extends SwingWorker<Void, String> {
+        private static final int ITEMS_PER_CHUNK = 500;
+
+        private final List<?> items;
+        private int rendered;
+
+        ViewRenderer(List<?> items) {
+            this.items = items;
+        }
+
+        @Override
+        protected Void doInBackground() {
+            StringBuilder chunk = new StringBuilder();
+            for (int i = 0; i < items.size() && !isCancelled(); i++) {
+                chunk.append(items.get(i)).append("\n\n");
+                if ((i + 1) % ITEMS_PER_CHUNK == 0) {
+                    publish(chunk.toString());
+                    chunk.setLength(0);
+                }
+            }
+            if (chunk.length() > 0 && !isCancelled()) {
+                publish(chunk.toString());
+            }
+            return null;
+        }
+
+        @Override
+        protected void process(List<String> chunks) {
+            if (isCancelled()) {
+                return;
+            }
+            StringBuilder text = new StringBuilder();
+            for (String chunk : chunks) {
+                text.append(chunk);
+            }
+            viewTextArea.append(text.toString());
+            rendered = Math.min(items.size(), rendered + chunks.size() * ITEMS_PER_CHUNK);
+            viewStatusLabel.setText("Showing " + rendered + " of " + items.size());
+        }
+
+        @Override
+        protected void done() {
+            if (viewRenderer == this) {
+                viewStatusLabel.setText("Showing " + items.size() + " of " + items.size());
+                viewRenderer = null;
+                stopRenderButton.setEnabled(false);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        SwingUtilities.invokeLater(() -> new HospitalManagementSystem());
+    }
+}
\ No newline at end of file
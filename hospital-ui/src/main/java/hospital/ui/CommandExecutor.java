@@ -0,0 +1,57 @@
+package hospital.ui;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+// Runs service calls off the Event Dispatch Thread and reports the outcome back on it.
+// Work is spread over a fixed set of single-threaded lanes with bounded queues; commands
+// submitted with the same key always land in the same lane, so they run in submission order.
+public class CommandExecutor {
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private final ThreadPoolExecutor[] lanes;
+    private final AtomicInteger nextLane = new AtomicInteger();
+
+    public CommandExecutor(int laneCount) {
+        lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String name = "command-lane-" + i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                        Thread thread = new Thread(r, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    public <T> void submit(Callable<T> command, Consumer<? super T> onSuccess, Consumer<? super Exception> onError) {
+        execute(lanes[Math.floorMod(nextLane.getAndIncrement(), lanes.length)], command, onSuccess, onError);
+    }
+
+    public <T> void submit(int key, Callable<T> command, Consumer<? super T> onSuccess, Consumer<? super Exception> onError) {
+        execute(lanes[Math.floorMod(key, lanes.length)], command, onSuccess, onError);
+    }
+
+    private <T> void execute(ThreadPoolExecutor lane, Callable<T> command,
+                             Consumer<? super T> onSuccess, Consumer<? super Exception> onError) {
+        try {
+            lane.execute(() -> {
+                try {
+                    T result = command.call();
+                    SwingUtilities.invokeLater(() -> onSuccess.accept(result));
+                } catch (Exception e) {
+                    SwingUtilities.invokeLater(() -> onError.accept(e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            onError.accept(new IllegalStateException("Too many pending requests. Please try again."));
+        }
+    }
+}
\ No newline at end of file
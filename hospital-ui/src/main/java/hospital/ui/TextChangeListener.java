@@ -0,0 +1,24 @@
+package hospital.ui;
+
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+// DocumentListener that reacts the same way to every kind of edit, usable as a lambda.
+public interface TextChangeListener extends DocumentListener {
+    void textChanged();
+
+    @Override
+    default void insertUpdate(DocumentEvent e) {
+        textChanged();
+    }
+
+    @Override
+    default void removeUpdate(DocumentEvent e) {
+        textChanged();
+    }
+
+    @Override
+    default void changedUpdate(DocumentEvent e) {
+        textChanged();
+    }
+}
\ No newline at end of file